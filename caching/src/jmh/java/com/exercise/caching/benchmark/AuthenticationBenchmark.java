@@ -0,0 +1,92 @@
+package com.exercise.caching.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+/**
+ * Requests per second for a cache-hit GET /api/caching/{id} over HTTP with Basic
+ * authentication, with and without the credential cache. Without it every request
+ * runs BCrypt, which dominates the cost of serving an entity that is already cached.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private static final String PASSWORD = "benchmark";
+    private static final String ID = "auth-benchmark";
+
+    @Param({"false", "true"})
+    private boolean credentialCache;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI uri;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "security.credential-cache.enabled=" + credentialCache,
+                "cache.access-time.flush-interval-ms=3600000",
+                "logging.level.com.exercise.caching=ERROR",
+                "api.password=" + PASSWORD);
+        context.getBean(CachingService.class)
+                .add(new CachedEntity(ID, BenchmarkApplication.payload(100), LocalDateTime.now()));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        uri = URI.create("http://localhost:" + port + "/api/caching/" + ID);
+        authorization = "Basic " + Base64.getEncoder().encodeToString(
+                ("cachinguser:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
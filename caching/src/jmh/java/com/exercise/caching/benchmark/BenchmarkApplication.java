@@ -0,0 +1,65 @@
+package com.exercise.caching.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.CachingApplication;
+
+/**
+ * Starts the caching application for benchmarks: random port, private in-memory
+ * H2 database, no Vault and quiet logging. Extra properties override the defaults
+ * and application.properties.
+ */
+final class BenchmarkApplication {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+        "server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+        "spring.cloud.vault.enabled=false",
+        "spring.devtools.restart.enabled=false",
+        // Devtools would shut H2 down before the final access time and write-behind flushes
+        "spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+        "logging.file.name=",
+        "logging.level.root=WARN",
+        "logging.level.com.exercise.caching=WARN"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(new Class<?>[0], properties);
+    }
+
+    /**
+     * @param sources Additional configuration or bean classes, such as post-processors
+     * that instrument beans for a benchmark
+     */
+    static ConfigurableApplicationContext start(Class<?>[] sources, String... properties) {
+        // Passed as command line arguments so they win over application.properties; a
+        // repeated argument would be joined with the default instead of replacing it
+        Map<String, String> merged = new LinkedHashMap<>();
+        Stream.concat(Arrays.stream(DEFAULT_PROPERTIES), Arrays.stream(properties))
+                .forEach(property -> merged.put(property.substring(0, property.indexOf('=')), property));
+        String[] args = merged.values().stream()
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(CachingApplication.class)
+                .sources(sources)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    static String payload(int length) {
+        StringBuilder data = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            data.append((char) ('a' + i % 26));
+        }
+        return data.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package com.exercise.caching.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachedEntityExpiry;
+import com.exercise.caching.service.StripedCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * The two first-tier engines behind Spring's Cache interface, configured like
+ * CacheConfig: cache-aside throughput on a skewed workload of 95% reads and 5% writes
+ * at 1 to 64 threads, where misses are put back like a load would, and the heap
+ * retained per entry by each engine, excluding the entities themselves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheEngineBenchmark {
+
+    private static final int CAPACITY = 10_000;
+    private static final int KEYS = 2 * CAPACITY;
+    // Four in five reads go to this many keys, so most of them hit
+    private static final int HOT_KEYS = CAPACITY / 2;
+
+    @Param({"caffeine", "striped"})
+    private String engine;
+
+    private Cache cache;
+    private CachedEntity[] entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = entities(KEYS);
+        cache = createCache(engine, CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            cache.put(entities[i].getId(), entities[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Cache createCache(String engine, int capacity) {
+        CachedEntityExpiry expiry = new CachedEntityExpiry(Duration.ofMinutes(10));
+        if ("striped".equals(engine)) {
+            return new StripedCache<>("cacheEntity", capacity, expiry, null, ForkJoinPool.commonPool(),
+                    Ticker.systemTicker());
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, CachedEntity> caffeineCache = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfter(expiry)
+                .recordStats()
+                .build();
+        return new CaffeineCache("cacheEntity",
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) (com.github.benmanes.caffeine.cache.Cache<?, ?>) caffeineCache,
+                false);
+    }
+
+    private static CachedEntity[] entities(int count) {
+        String data = BenchmarkApplication.payload(100);
+        CachedEntity[] entities = new CachedEntity[count];
+        for (int i = 0; i < count; i++) {
+            entities[i] = new CachedEntity("id-" + i, data, null);
+        }
+        return entities;
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = (int) Thread.currentThread().threadId() * 7919;
+        private int operation;
+
+        int next() {
+            next = (next + 7919) & Integer.MAX_VALUE;
+            return next % 5 == 0 ? next % KEYS : next % HOT_KEYS;
+        }
+
+        boolean isWrite() {
+            operation = (operation + 1) % 20;
+            return operation == 0;
+        }
+    }
+
+    private CachedEntity access(Cursor cursor) {
+        CachedEntity entity = entities[cursor.next()];
+        if (cursor.isWrite()) {
+            cache.put(entity.getId(), entity);
+            return entity;
+        }
+        CachedEntity cached = cache.get(entity.getId(), CachedEntity.class);
+        if (cached == null) {
+            cache.put(entity.getId(), entity);
+            return entity;
+        }
+        return cached;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CachedEntity threads01(Cursor cursor) {
+        return access(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CachedEntity threads04(Cursor cursor) {
+        return access(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public CachedEntity threads16(Cursor cursor) {
+        return access(cursor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public CachedEntity threads64(Cursor cursor) {
+        return access(cursor);
+    }
+
+    /**
+     * Reported as the bytesPerEntry secondary result of the footprint benchmark
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerEntry;
+    }
+
+    /**
+     * Fills a new cache to capacity and measures the heap it retains after a full GC.
+     * Measured once, as event counters are summed across iterations.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    @Threads(1)
+    public Cache footprint(Footprint footprint) {
+        long before = usedHeap();
+        Cache filled = createCache(engine, CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            filled.put(entities[i].getId(), entities[i]);
+        }
+        footprint.bytesPerEntry = (usedHeap() - before) / CAPACITY;
+        return filled;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
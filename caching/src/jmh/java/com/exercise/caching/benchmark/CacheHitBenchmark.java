@@ -0,0 +1,83 @@
+package com.exercise.caching.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+/**
+ * Cost of a cache hit through the CachingService bean. Meant to be run with the GC
+ * profiler, where gc.alloc.rate.norm should stay at or near zero bytes per operation:
+ *
+ *     mvn -Pbenchmarks -DskipTests verify -Djmh.include=CacheHitBenchmark -Djmh.args="-prof gc"
+ *
+ * The cache is filled directly and access times are never flushed during a run, so
+ * the benchmark does not depend on the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheHitBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private ConfigurableApplicationContext context;
+    private CachingService cachingService;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "cache.max.size=" + (KEYS * 2),
+                "cache.access-time.batch-size=" + Integer.MAX_VALUE,
+                "cache.access-time.flush-interval-ms=3600000");
+        cachingService = context.getBean(CachingService.class);
+        Cache entityCache = context.getBean(CacheManager.class).getCache("cacheEntity");
+        String data = BenchmarkApplication.payload(100);
+        ids = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ids[i] = "id-" + i;
+            entityCache.put(ids[i], new CachedEntity(ids[i], data, LocalDateTime.now()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String next(String[] ids) {
+            next = (next + 1) & (ids.length - 1);
+            return ids[next];
+        }
+    }
+
+    @Benchmark
+    public CachedEntity get(Cursor cursor) {
+        return cachingService.get(cursor.next(ids));
+    }
+}
@@ -0,0 +1,87 @@
+package com.exercise.caching.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+/**
+ * Single-threaded cost of CachingService operations through the Spring proxies:
+ * a cache hit, a cache miss served by the in-memory H2 database, and a write-through add.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingServiceBenchmark {
+
+    private static final int KEYS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private CachingService cachingService;
+    private Cache entityCache;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("cache.max.size=" + (KEYS * 2));
+        cachingService = context.getBean(CachingService.class);
+        entityCache = context.getBean(CacheManager.class).getCache("cacheEntity");
+        String data = BenchmarkApplication.payload(100);
+        ids = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ids[i] = "id-" + i;
+            cachingService.add(new CachedEntity(ids[i], data, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String next(String[] ids) {
+            next = (next + 1) % ids.length;
+            return ids[next];
+        }
+    }
+
+    @Benchmark
+    public CachedEntity cacheHitGet() {
+        return cachingService.get(ids[0]);
+    }
+
+    @Benchmark
+    public CachedEntity cacheMissGet(Cursor cursor) {
+        String id = cursor.next(ids);
+        entityCache.evict(id);
+        return cachingService.get(id);
+    }
+
+    @Benchmark
+    public CachedEntity addWriteThrough(Cursor cursor) {
+        return cachingService.add(new CachedEntity(cursor.next(ids), "updated", null));
+    }
+}
@@ -0,0 +1,85 @@
+package com.exercise.caching.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * The Caffeine layer on its own, configured like CacheConfig, accessed natively and
+ * through Spring's Cache adapter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CaffeineCacheBenchmark {
+
+    private static final int KEYS = 1000;
+
+    private Cache<String, CachedEntity> caffeineCache;
+    private CaffeineCache springCache;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        caffeineCache = Caffeine.newBuilder()
+                .maximumSize(KEYS)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        springCache = new CaffeineCache("cacheEntity", (Cache<Object, Object>) (Cache<?, ?>) caffeineCache, false);
+        ids = new String[KEYS];
+        String data = BenchmarkApplication.payload(100);
+        for (int i = 0; i < KEYS; i++) {
+            ids[i] = "id-" + i;
+            caffeineCache.put(ids[i], new CachedEntity(ids[i], data, LocalDateTime.now()));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String next(String[] ids) {
+            next = (next + 1) % ids.length;
+            return ids[next];
+        }
+    }
+
+    @Benchmark
+    public CachedEntity nativeGet(Cursor cursor) {
+        return caffeineCache.getIfPresent(cursor.next(ids));
+    }
+
+    @Benchmark
+    public CachedEntity springGet(Cursor cursor) {
+        return springCache.get(cursor.next(ids), CachedEntity.class);
+    }
+
+    @Benchmark
+    public void nativePut(Cursor cursor) {
+        String id = cursor.next(ids);
+        caffeineCache.put(id, new CachedEntity(id, "updated", null));
+    }
+}
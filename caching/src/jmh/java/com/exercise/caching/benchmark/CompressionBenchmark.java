@@ -0,0 +1,104 @@
+package com.exercise.caching.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachedEntityWeigher;
+import com.exercise.caching.service.DataCompressor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The memory against latency trade-off of compressing entity data with DataCompressor,
+ * on JSON payloads: the time to compress an entity when it is added, and to serialize a
+ * cached entity to a client as JSON, which inflates compressed data; and the estimated
+ * heap retained by the cached entity, as the secondary result "footprint:bytesPerEntry".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"1024", "16384"})
+    private int dataLength;
+
+    // Deflate level, or "off" to keep the data as text
+    @Param({"off", "1", "6"})
+    private String level;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private DataCompressor compressor;
+    private String data;
+    private CachedEntity cached;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytesPerEntry;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean enabled = !"off".equals(level);
+        compressor = new DataCompressor(new SimpleMeterRegistry(), enabled, 0, enabled ? Integer.parseInt(level) : 1);
+        data = jsonPayload(dataLength);
+        cached = new CachedEntity("id-1", data, null);
+        compressor.compress(cached);
+    }
+
+    static String jsonPayload(int length) {
+        StringBuilder json = new StringBuilder(length + 100).append('[');
+        for (int i = 0; json.length() < length; i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("{\"id\":").append(i)
+                    .append(",\"name\":\"user-").append(i * 7919 % 10_000)
+                    .append("\",\"active\":").append(i % 3 != 0)
+                    .append(",\"score\":").append(i * 31 % 1000).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    @Benchmark
+    public CachedEntity compress() {
+        CachedEntity entity = new CachedEntity("id-1", data, null);
+        compressor.compress(entity);
+        return entity;
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cached);
+    }
+
+    /**
+     * A single invocation, as event counters are summed across iterations
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public CachedEntity footprint(Size size) {
+        size.bytesPerEntry = CachedEntityWeigher.estimate(cached);
+        return cached;
+    }
+}
@@ -0,0 +1,94 @@
+package com.exercise.caching.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachedEntityExpiry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Fixed expireAfterWrite against per-entry expiry through CachedEntityExpiry, on a
+ * cache-aside workload of 90% reads and 10% writes over entities with mixed TTLs
+ * (1 second, 1 minute, 1 hour and the default). Short-lived entries expire during
+ * the run with per-entry expiry, and misses are put back like a load would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ExpiryBenchmark {
+
+    private static final int KEYS = 10_000;
+    private static final Long[] TTLS = {1L, 60L, 3600L, null};
+
+    @Param({"fixed", "variable"})
+    private String expiry;
+
+    private Cache<String, CachedEntity> cache;
+    private CachedEntity[] entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(KEYS).recordStats();
+        cache = "fixed".equals(expiry)
+                ? builder.expireAfterWrite(10, TimeUnit.MINUTES).build()
+                : builder.expireAfter(new CachedEntityExpiry(Duration.ofMinutes(10))).build();
+        String data = BenchmarkApplication.payload(100);
+        entities = new CachedEntity[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            entities[i] = new CachedEntity("id-" + i, data, null);
+            entities[i].setTtlSeconds(TTLS[i % TTLS.length]);
+            cache.put(entities[i].getId(), entities[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        private int operation;
+
+        int next() {
+            next = (next + 7919) % KEYS;
+            return next;
+        }
+
+        boolean isWrite() {
+            operation = (operation + 1) % 10;
+            return operation == 0;
+        }
+    }
+
+    @Benchmark
+    public CachedEntity mixed(Cursor cursor) {
+        CachedEntity entity = entities[cursor.next()];
+        if (cursor.isWrite()) {
+            cache.put(entity.getId(), entity);
+            return entity;
+        }
+        CachedEntity cached = cache.getIfPresent(entity.getId());
+        if (cached == null) {
+            cache.put(entity.getId(), entity);
+            return entity;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,92 @@
+package com.exercise.caching.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+/**
+ * Throughput of a mixed read/write workload against CachingService at 1, 4 and 16
+ * threads. Reads pick uniformly from a key space larger than the cache, so a share
+ * of them miss and go to H2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MixedWorkloadBenchmark {
+
+    private static final int KEYS = 2000;
+    private static final int CACHE_SIZE = 1000;
+
+    @Param({"90"})
+    private int readPercent;
+
+    private ConfigurableApplicationContext context;
+    private CachingService cachingService;
+    private String[] ids;
+    private String data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("cache.max.size=" + CACHE_SIZE);
+        cachingService = context.getBean(CachingService.class);
+        data = BenchmarkApplication.payload(100);
+        ids = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ids[i] = "id-" + i;
+            cachingService.add(new CachedEntity(ids[i], data, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CachedEntity mixed1Thread() {
+        return operation();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CachedEntity mixed4Threads() {
+        return operation();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public CachedEntity mixed16Threads() {
+        return operation();
+    }
+
+    private CachedEntity operation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = ids[random.nextInt(KEYS)];
+        if (random.nextInt(100) < readPercent) {
+            return cachingService.get(id);
+        }
+        return cachingService.add(new CachedEntity(id, data, null));
+    }
+}
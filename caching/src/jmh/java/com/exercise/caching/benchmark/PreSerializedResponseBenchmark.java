@@ -0,0 +1,123 @@
+package com.exercise.caching.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.caching.config.CacheConfig;
+import com.exercise.caching.config.PreSerializedResponses;
+import com.exercise.caching.model.CachedEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Requests per second for a cache-hit GET /api/caching/{id} on a single hot key over
+ * HTTP, serialized by Jackson per request ("off"), written from the JSON bytes kept on
+ * the cached entity ("json"), or from its gzipped copy to a client accepting gzip
+ * ("gzip"). The credential cache is on, so authentication does not dominate.
+ * <p>
+ * The body benchmark isolates the part of a hit that the mode removes: producing the
+ * response body in process, as the JSON message converter does or from the kept bytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PreSerializedResponseBenchmark {
+
+    private static final String PASSWORD = "benchmark";
+    private static final String ID = "hot-key";
+
+    @Param({"off", "json", "gzip"})
+    private String responseBytes;
+
+    @Param({"256", "4096"})
+    private int dataLength;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private CachedEntity entity;
+    private ObjectMapper objectMapper;
+    private PreSerializedResponses responses;
+    private String acceptEncoding;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "cache.response-bytes.enabled=" + !"off".equals(responseBytes),
+                "cache.response-bytes.gzip=" + "gzip".equals(responseBytes),
+                "security.credential-cache.enabled=true",
+                "cache.access-time.flush-interval-ms=3600000",
+                "logging.level.com.exercise.caching=ERROR",
+                "api.password=" + PASSWORD);
+        // Put straight into the cache, so only the response path is measured
+        entity = new CachedEntity(ID, CompressionBenchmark.jsonPayload(dataLength), LocalDateTime.now());
+        context.getBean(CacheManager.class).getCache(CacheConfig.CACHE_NAME).put(ID, entity);
+        objectMapper = context.getBean(ObjectMapper.class);
+        responses = context.getBean(PreSerializedResponses.class);
+        acceptEncoding = "gzip".equals(responseBytes) ? "gzip" : null;
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(
+                ("cachinguser:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/caching/" + ID))
+                .header("Authorization", authorization)
+                .header("Accept", "application/json")
+                .GET();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        request = builder.build();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Benchmark
+    public byte[] body() throws JsonProcessingException {
+        if ("off".equals(responseBytes)) {
+            return objectMapper.writeValueAsBytes(entity);
+        }
+        return responses.response(entity, "application/json", acceptEncoding).getBody();
+    }
+}
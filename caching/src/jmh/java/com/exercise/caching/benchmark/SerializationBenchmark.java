@@ -0,0 +1,113 @@
+package com.exercise.caching.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Encode and decode throughput of CachedEntityCodec against Java serialization and
+ * Jackson JSON. The encode benchmarks also report the encoded size of one entity as
+ * the secondary result "bytesPerEntry".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"100", "4000"})
+    private int dataLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private CachedEntity entity;
+    private byte[] codecBytes;
+    private byte[] javaBytes;
+    private byte[] jsonBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytesPerEntry;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        entity = new CachedEntity("id-12345", BenchmarkApplication.payload(dataLength),
+                LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        codecBytes = CachedEntityCodec.encode(entity);
+        javaBytes = javaSerialize(entity);
+        jsonBytes = objectMapper.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] codecEncode(Size size) {
+        byte[] bytes = CachedEntityCodec.encode(entity);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public CachedEntity codecDecode() {
+        return CachedEntityCodec.decode(codecBytes);
+    }
+
+    @Benchmark
+    public byte[] javaEncode(Size size) throws IOException {
+        byte[] bytes = javaSerialize(entity);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object javaDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(Size size) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(entity);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public CachedEntity jsonDecode() throws IOException {
+        return objectMapper.readValue(jsonBytes, CachedEntity.class);
+    }
+
+    private static byte[] javaSerialize(CachedEntity entity) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(entity);
+        }
+        return bytes.toByteArray();
+    }
+}
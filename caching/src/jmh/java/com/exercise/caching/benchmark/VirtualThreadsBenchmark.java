@@ -0,0 +1,153 @@
+package com.exercise.caching.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Load test of GET /api/caching/{id} over HTTP with 200 concurrent clients against a
+ * database slowed down by a fixed delay per connection checkout, comparing Tomcat's
+ * platform thread pool (capped at 50 threads) with virtual threads. Requested IDs are
+ * absent from the database, so every request blocks on one JDBC query and nothing is
+ * cached or evicted. Reports throughput and the latency distribution, including p99.
+ * <p>
+ * Password hashing is replaced with a no-op encoder, so that the request path and not
+ * BCrypt is measured, and the connection pool is filled up to the client count, so that
+ * threads rather than connections are the constrained resource.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(200)
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+
+    private static final String PASSWORD = "benchmark";
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    // Long enough that the 50 platform threads, not the CPU, limit throughput on small hosts
+    @Param({"500"})
+    private int dbDelayMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("benchmark.db-delay-ms", String.valueOf(dbDelayMs));
+        context = BenchmarkApplication.start(new Class<?>[] {SlowDatabase.class},
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=50",
+                "spring.datasource.hikari.maximum-pool-size=200",
+                "spring.datasource.hikari.minimum-idle=200",
+                "cache.negative.enabled=false",
+                "logging.level.com.exercise.caching=ERROR",
+                "api.password=" + PASSWORD);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/caching/";
+        authorization = "Basic " + Base64.getEncoder().encodeToString(
+                ("cachinguser:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        String id = "missing-" + ThreadLocalRandom.current().nextLong();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 404) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + id);
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * Adds the database delay and swaps BCrypt for a no-op encoder
+     */
+    static class SlowDatabase implements BeanPostProcessor {
+
+        private final long delayMs = Long.getLong("benchmark.db-delay-ms", 500);
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+                return new SlowDataSource(dataSource, delayMs);
+            }
+            if (bean instanceof PasswordEncoder) {
+                return NoOpPasswordEncoder.getInstance();
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * Holds each checked-out connection for a fixed delay first, like a slow network
+     * round trip to the database
+     */
+    static class SlowDataSource extends DelegatingDataSource {
+
+        private final long delayMs;
+
+        SlowDataSource(DataSource target, long delayMs) {
+            super(target);
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.exercise.caching.repository;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.caching.model.CachedEntity;
+
+/**
+ * Throughput of CachingRepository's row mapper on an in-memory result set,
+ * without any JDBC round trip.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        resultSet = new SimpleResultSet();
+        resultSet.addColumn("id", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("data", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("last_accessed", Types.TIMESTAMP, 0, 0);
+        resultSet.addRow("id-1", "a".repeat(100), new Timestamp(System.currentTimeMillis()));
+        resultSet.next();
+    }
+
+    @Benchmark
+    public CachedEntity mapRow() throws SQLException {
+        return CachingRepository.cacheEntityRowMapper.mapRow(resultSet, 0);
+    }
+}
@@ -1,49 +1,274 @@
 package com.exercise.caching.config;
 
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachedEntityCacheLoader;
+import com.exercise.caching.service.CachedEntityExpiry;
+import com.exercise.caching.service.CachedEntityWeigher;
 import com.exercise.caching.service.EvictionHandler;
+import com.exercise.caching.service.OffHeapStore;
+import com.exercise.caching.service.StripedCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
 
 
 @Configuration
 public class CacheConfig {
 
+	public static final String CACHE_NAME = "cacheEntity";
+	public static final String CAFFEINE_ENGINE = "caffeine";
+	public static final String STRIPED_ENGINE = "striped";
+
 	@Value("${cache.max.size:100}")
     private int maxElements;
+    @Value("${cache.max.weight-bytes:0}")
+    private long maxWeightBytes;
     @Value("${cache.expire.minutes:10}")
     private int expiryMinutes;
+    @Value("${cache.refresh.enabled:false}")
+    private boolean refreshEnabled;
+    @Value("${cache.refresh.after-write-minutes:5}")
+    private int refreshMinutes;
+    @Value("${cache.refresh.threads:4}")
+    private int refreshThreads;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${cache.engine:caffeine}")
+    private String engine;
+    @Value("${cache.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+    @Value("${cache.warmup.enabled:false}")
+    private boolean warmupEnabled;
 
     private final EvictionHandler evictionHandler;
+    private final OffHeapStore offHeapStore;
     private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
 
-    public CacheConfig(EvictionHandler evictionHandler) {
+    public CacheConfig(EvictionHandler evictionHandler, OffHeapStore offHeapStore) {
         this.evictionHandler = evictionHandler;
+        this.offHeapStore = offHeapStore;
     }
 
+    /**
+     * Executor running background refreshes, bulk loads and removal notifications of
+     * either cache engine, which may write evicted entities to the database, so they
+     * never block the common fork-join pool. Its size bounds the concurrent database
+     * loads; with virtual threads enabled the workers are virtual so blocked loads do
+     * not hold platform threads.
+     */
     @Bean
-    public com.github.benmanes.caffeine.cache.Cache<Long, CachedEntity> caffeineCache() {
-    	logger.info("Initializing Caffeine Cache with max size: {}", maxElements);
-        
-        return Caffeine.newBuilder()
-                .maximumSize(maxElements)
-                .expireAfterWrite(expiryMinutes, TimeUnit.MINUTES)
+    public ExecutorService refreshExecutor() {
+        if (virtualThreads) {
+            return Executors.newFixedThreadPool(refreshThreads, Thread.ofVirtual().name("cache-refresh-", 1).factory());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs synchronously with each eviction from the first cache tier, atomically with
+     * the removal of the entry: demotes entries evicted for size to the off-heap tier
+     * when it is enabled, and drops any off-heap copy of entries evicted otherwise. As
+     * nothing reaches the off-heap tier after the entry has left the first tier, a
+     * concurrent remove or add that invalidates the off-heap tier cannot be undone by a
+     * late demotion. Shared by both cache engines.
+     * <p>
+     * Only the copy into the off-heap buffer runs here. Entities the off-heap tier
+     * rejects or overwrites are written back on the refresh executor, so an eviction
+     * never holds Caffeine's maintenance or a striped cache lock during a database call.
+     */
+    @Bean
+    public RemovalListener<String, CachedEntity> cacheEvictionListener(ExecutorService refreshExecutor) {
+        return (String key, CachedEntity value, RemovalCause cause) -> {
+            if (cause == RemovalCause.SIZE && offHeapStore.isEnabled()) {
+                logger.debug("Demoting evicted key to off-heap cache: {}", key);
+                List<CachedEntity> displaced = offHeapStore.put(value);
+                if (!displaced.isEmpty()) {
+                    refreshExecutor.execute(() -> displaced.forEach(evictionHandler::handleEviction));
+                }
+            } else {
+                offHeapStore.invalidate(key);
+            }
+        };
+    }
+
+    /**
+     * Counts removals from the first cache tier by cause as cache.removals, and hands
+     * evictions that were not demoted to the off-heap tier to the EvictionHandler; the
+     * eviction listener writes back those the off-heap tier gives up. Expired entries are not written back, which would store
+     * them again. Runs asynchronously. Shared by both cache engines.
+     */
+    @Bean
+    public RemovalListener<String, CachedEntity> cacheRemovalListener(MeterRegistry meterRegistry) {
+        Map<RemovalCause, Counter> removals = new EnumMap<>(RemovalCause.class);
+        for (RemovalCause cause : RemovalCause.values()) {
+            removals.put(cause, Counter.builder("cache.removals")
+                    .description("Entries removed from the cache, by cause")
+                    .tag("cache", CACHE_NAME)
+                    .tag("cause", cause.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return (String key, CachedEntity value, RemovalCause cause) -> {
+            removals.get(cause).increment();
+            if (cause.wasEvicted() && cause != RemovalCause.EXPIRED
+                    && !(cause == RemovalCause.SIZE && offHeapStore.isEnabled())) {
+            	logger.info("Cache eviction triggered for key: {}. Cause: {}", key, cause);
+                evictionHandler.handleEviction(value);
+            }
+        };
+    }
+
+    /**
+     * The first cache tier. Entries expire after their own TTL, or cache.expire.minutes
+     * when they have none. The cache is bounded by the estimated heap size of its
+     * entries when cache.max.weight-bytes is set, and by cache.max.size entries
+     * otherwise. Hits, misses, evictions, load time and size are published as the
+     * "cacheEntity" cache metrics; removals are additionally counted by cause as
+     * cache.removals, and the estimated weight as cache.weight.
+     * <p>
+     * Only registered with cache.engine=caffeine, the default; the components taking
+     * it directly are disabled with the striped engine.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cache.engine", havingValue = CAFFEINE_ENGINE, matchIfMissing = true)
+    public Cache<String, CachedEntity> caffeineCache(CachedEntityCacheLoader cacheLoader, ExecutorService refreshExecutor,
+                                                     RemovalListener<String, CachedEntity> cacheRemovalListener,
+                                                     RemovalListener<String, CachedEntity> cacheEvictionListener,
+                                                     MeterRegistry meterRegistry) {
+        Caffeine<String, CachedEntity> builder = Caffeine.newBuilder()
+                .expireAfter(new CachedEntityExpiry(Duration.ofMinutes(expiryMinutes)))
+                .executor(refreshExecutor)
                 .recordStats()
-                .removalListener((Long key, CachedEntity value, RemovalCause cause) -> {
-                    if (cause.wasEvicted()) {
-                    	logger.info("Cache eviction triggered for key: {}. Cause: {}", key, cause);
-                        evictionHandler.handleEviction(value);
-                    }
-                })
-                .build();
-    }
-}
\ No newline at end of file
+                .evictionListener(cacheEvictionListener)
+                .removalListener(cacheRemovalListener);
+        if (maxWeightBytes > 0) {
+            logger.info("Initializing Caffeine Cache with max weight: {} bytes", maxWeightBytes);
+            builder.maximumWeight(maxWeightBytes).weigher(new CachedEntityWeigher());
+        } else {
+            logger.info("Initializing Caffeine Cache with max size: {}", maxElements);
+            builder.maximumSize(maxElements);
+        }
+
+        if (!refreshEnabled) {
+            return monitor(builder.build(), meterRegistry);
+        }
+        if (refreshMinutes >= expiryMinutes) {
+            logger.warn("Cache refresh interval of {} minutes is not shorter than expiry of {} minutes, entries will expire before being refreshed",
+                    refreshMinutes, expiryMinutes);
+        }
+        logger.info("Enabling cache refresh after {} minutes with {} threads", refreshMinutes, refreshThreads);
+        // Stale entries are reloaded asynchronously through the loader while readers get the old value
+        return monitor(builder
+                .refreshAfterWrite(refreshMinutes, TimeUnit.MINUTES)
+                .buildAsync(cacheLoader)
+                .synchronous(), meterRegistry);
+    }
+
+    private static Cache<String, CachedEntity> monitor(Cache<String, CachedEntity> cache, MeterRegistry meterRegistry) {
+        Gauge.builder("cache.weight", cache, CacheConfig::weightedSize)
+                .description("Estimated heap retained by the cache entries")
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // NaN when the cache is bounded by entry count rather than weight
+    private static double weightedSize(Cache<String, CachedEntity> cache) {
+        OptionalLong weightedSize = cache.policy().eviction()
+                .map(Policy.Eviction::weightedSize)
+                .orElse(OptionalLong.empty());
+        return weightedSize.isPresent() ? weightedSize.getAsLong() : Double.NaN;
+    }
+
+    /**
+     * Drops the actuator's automatic metrics for cache manager caches. They carry an
+     * extra cache.manager tag, and Prometheus requires the same tag keys for every cache,
+     * so "cacheEntity" is bound above like the other Caffeine caches instead.
+     */
+    @Bean
+    public static MeterFilter cacheManagerMetricsFilter() {
+        return MeterFilter.deny(id -> id.getName().startsWith("cache.") && id.getTag("cache.manager") != null);
+    }
+
+    /**
+     * Cache manager backing the "cacheEntity" cache used by CachingService and the
+     * caching annotations. With the default cache.engine=caffeine it is the bounded
+     * Caffeine instance above, so size, expiry, stats and the eviction listener apply
+     * to annotated operations as well; with cache.engine=striped it is a StripedCache
+     * with the same size, expiry, eviction and removal listeners and cache metrics.
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public CacheManager cacheManager(ObjectProvider<Cache<String, CachedEntity>> caffeineCache,
+                                     ExecutorService refreshExecutor,
+                                     RemovalListener<String, CachedEntity> cacheRemovalListener,
+                                     RemovalListener<String, CachedEntity> cacheEvictionListener,
+                                     MeterRegistry meterRegistry) {
+        if (STRIPED_ENGINE.equals(engine)) {
+            return stripedCacheManager(refreshExecutor, cacheRemovalListener, cacheEvictionListener, meterRegistry);
+        }
+        if (!CAFFEINE_ENGINE.equals(engine)) {
+            throw new IllegalArgumentException("cache.engine must be " + CAFFEINE_ENGINE + " or " + STRIPED_ENGINE
+                    + ": " + engine);
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(CACHE_NAME, (Cache<Object, Object>) (Cache<?, ?>) caffeineCache.getObject());
+        return cacheManager;
+    }
+
+    private CacheManager stripedCacheManager(ExecutorService refreshExecutor,
+                                             RemovalListener<String, CachedEntity> cacheRemovalListener,
+                                             RemovalListener<String, CachedEntity> cacheEvictionListener,
+                                             MeterRegistry meterRegistry) {
+        // These depend on the Caffeine cache's loader, weigher or policy
+        if (refreshEnabled || maxWeightBytes > 0 || snapshotEnabled || warmupEnabled) {
+            throw new IllegalStateException("cache.engine=" + STRIPED_ENGINE + " does not support cache.refresh, "
+                    + "cache.max.weight-bytes, cache.snapshot or cache.warmup");
+        }
+        logger.info("Initializing striped cache with max size: {}", maxElements);
+        StripedCache<String, CachedEntity> cache = new StripedCache<>(CACHE_NAME, maxElements,
+                new CachedEntityExpiry(Duration.ofMinutes(expiryMinutes)), cacheEvictionListener, cacheRemovalListener,
+                refreshExecutor, Ticker.systemTicker());
+        cache.bindTo(meterRegistry);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(cache));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,53 @@
+package com.exercise.caching.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+
+/**
+ * Reads and writes a single CachedEntity in the CachedEntityCodec binary format for
+ * clients that send or accept {@value #MEDIA_TYPE_VALUE}. Compressed data is inflated
+ * for the client. Clients send data as text only: the compressed encoding is rejected,
+ * as its bytes would be stored unchecked and inflated without a size limit later.
+ */
+public class CachedEntityHttpMessageConverter extends AbstractHttpMessageConverter<CachedEntity> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-cached-entity";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public CachedEntityHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedEntity.class == clazz;
+    }
+
+    @Override
+    protected CachedEntity readInternal(Class<? extends CachedEntity> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        CachedEntity entity;
+        try {
+            entity = CachedEntityCodec.decode(inputMessage.getBody().readAllBytes());
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Invalid " + MEDIA_TYPE_VALUE + " body: " + e.getMessage(), e, inputMessage);
+        }
+        if (entity.isCompressed()) {
+            throw new HttpMessageNotReadableException("Compressed " + MEDIA_TYPE_VALUE + " bodies are not accepted", inputMessage);
+        }
+        return entity;
+    }
+
+    @Override
+    protected void writeInternal(CachedEntity entity, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(CachedEntityCodec.encodeInflated(entity));
+    }
+}
@@ -0,0 +1,97 @@
+package com.exercise.caching.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Password encoder that remembers recent successful matches, so HTTP Basic requests
+ * with the same credentials only pay for BCrypt once per TTL instead of on every call.
+ * <p>
+ * Only matches are cached; a wrong password always goes through the delegate at full
+ * cost. Entries are keyed by an HMAC-SHA256 of the raw password and the stored hash
+ * under a random key generated at startup, so the cache holds neither passwords nor
+ * anything that can be checked offline, and changing a user's password invalidates
+ * the entry. The cache is bounded in size and entries expire after the TTL.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final Cache<String, Boolean> matches;
+    private final Mac prototype;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, int maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.matches = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String key = fingerprint(rawPassword, encodedPassword);
+        if (matches.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        if (matched) {
+            matches.put(key, Boolean.TRUE);
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    Cache<String, Boolean> getCache() {
+        return matches;
+    }
+
+    private String fingerprint(CharSequence rawPassword, String encodedPassword) {
+        Mac mac = newMac();
+        mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);  // Separates the password from the hash
+        mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC-SHA256 implementation cannot be cloned", e);
+        }
+    }
+}
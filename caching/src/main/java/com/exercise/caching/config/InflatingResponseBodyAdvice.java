@@ -0,0 +1,52 @@
+package com.exercise.caching.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.exercise.caching.model.BatchResponse;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.DataCompressor;
+
+/**
+ * Swaps entities held compressed in a response body for copies holding their data as
+ * text, so the data is inflated once per response, and timed, before the message
+ * converters write it.
+ */
+@ControllerAdvice
+public class InflatingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final DataCompressor dataCompressor;
+
+    public InflatingResponseBodyAdvice(DataCompressor dataCompressor) {
+        this.dataCompressor = dataCompressor;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof CachedEntity entity) {
+            return dataCompressor.inflated(entity);
+        }
+        if (body instanceof BatchResponse batch && batch.getResults() != null) {
+            // Results are built per request, so only the cached entities need copying
+            for (BatchResult result : batch.getResults()) {
+                if (result.getEntity() != null) {
+                    result.setEntity(dataCompressor.inflated(result.getEntity()));
+                }
+            }
+        }
+        return body;
+    }
+}
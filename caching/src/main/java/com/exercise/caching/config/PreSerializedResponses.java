@@ -0,0 +1,189 @@
+package com.exercise.caching.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.exercise.caching.model.CachedEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Builds GET responses from JSON bytes kept for the cached entity, so a hit on a hot key
+ * writes the same bytes again instead of running Jackson. The body is serialized with
+ * the application's ObjectMapper on the first request after the entity is cached, and
+ * with cache.response-bytes.gzip also kept gzipped for clients that accept it.
+ * <p>
+ * The bytes are kept outside the entity cache, in a cache of their own bounded by
+ * cache.response-bytes.max-weight-bytes of body bytes. It holds its entity instances
+ * weakly and compares them by identity, so bytes go once the entity is replaced by add
+ * or evicted and collected, and are rebuilt if a setter changes the entity. Entities
+ * held compressed are serialized per request, as keeping their JSON would undo the
+ * compression. Does nothing unless cache.response-bytes.enabled is set.
+ */
+@Component
+public class PreSerializedResponses {
+
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final Cache<CachedEntity, Bodies> bodies;
+
+    public PreSerializedResponses(ObjectMapper objectMapper,
+                                  @Value("${cache.response-bytes.enabled:false}") boolean enabled,
+                                  @Value("${cache.response-bytes.gzip:false}") boolean gzip,
+                                  @Value("${cache.response-bytes.max-weight-bytes:16777216}") long maxWeightBytes) {
+        if (enabled && maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("cache.response-bytes.max-weight-bytes must be positive: " + maxWeightBytes);
+        }
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.bodies = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(Math.max(maxWeightBytes, 0))
+                .weigher((CachedEntity entity, Bodies kept) -> kept.weight())
+                .executor(Runnable::run)
+                .build();
+    }
+
+    // Immutable, so a gzipped copy is added by replacing the entry and the new weight counts
+    private record Bodies(int revision, byte[] json, byte[] gzip) {
+
+        int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /**
+     * @param accept The request's Accept header, if any
+     * @param acceptEncoding The request's Accept-Encoding header, if any
+     * @return A 200 response with the entity's kept JSON bytes and entity tag, or null
+     * if the entity is to be serialized by the message converters as usual
+     */
+    public ResponseEntity<byte[]> response(CachedEntity entity, String accept, String acceptEncoding) {
+        if (!enabled || entity.isCompressed() || !acceptsJson(accept)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+        if (!gzip) {
+            return response.eTag(weakETag(entity.getEntityTag()))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(json(entity));
+        }
+        response.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(acceptEncoding)) {
+            return response.eTag(weakETag(entity.getEntityTag())).body(json(entity));
+        }
+        // A content coding is a different representation, so it gets its own tag
+        return response.eTag(weakETag(entity.getEntityTag() + "-" + GZIP))
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                .body(gzip(entity));
+    }
+
+    /**
+     * @return The tag as a weak ETag value, as entity tags leave out the access time and
+     * TTL that responses carry and are shared by the JSON and binary formats
+     */
+    public static String weakETag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    /**
+     * @return The body bytes currently kept, as counted against cache.response-bytes.max-weight-bytes
+     */
+    long keptBytes() {
+        bodies.cleanUp();
+        return bodies.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    // Read before serializing, so bytes built while a setter runs are stale rather than kept
+    private Bodies kept(CachedEntity entity) {
+        int revision = entity.getRevision();
+        Bodies kept = bodies.getIfPresent(entity);
+        if (kept != null && kept.revision() == revision) {
+            return kept;
+        }
+        Bodies built = new Bodies(revision, serialize(entity), null);
+        bodies.put(entity, built);
+        return built;
+    }
+
+    private byte[] json(CachedEntity entity) {
+        return kept(entity).json();
+    }
+
+    private byte[] gzip(CachedEntity entity) {
+        Bodies kept = kept(entity);
+        if (kept.gzip() == null) {
+            kept = new Bodies(kept.revision(), kept.json(), gzip(kept.json()));
+            bodies.put(entity, kept);
+        }
+        return kept.gzip();
+    }
+
+    private byte[] serialize(CachedEntity entity) {
+        try {
+            return objectMapper.writeValueAsBytes(entity);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize entity " + entity.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The binary media type and malformed headers are negotiated by the message converters instead
+    private static boolean acceptsJson(String accept) {
+        if (!StringUtils.hasText(accept) || MediaType.ALL_VALUE.equals(accept)
+                || MediaType.APPLICATION_JSON_VALUE.equals(accept)) {
+            return true;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return accepted.stream().noneMatch(type -> type.isCompatibleWith(CachedEntityHttpMessageConverter.MEDIA_TYPE)
+                        && !type.isWildcardSubtype())
+                && accepted.stream().anyMatch(type -> type.getQualityValue() > 0
+                        && type.isCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters >= 0 ? coding.substring(0, parameters) : coding).trim();
+            if (GZIP.equalsIgnoreCase(name) || "*".equals(name)) {
+                return parameters < 0 || !coding.substring(parameters).replace(" ", "").matches(";q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
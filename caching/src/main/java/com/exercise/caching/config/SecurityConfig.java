@@ -1,5 +1,7 @@
 package com.exercise.caching.config;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,22 +15,38 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig{
 
+    private static final String CREDENTIAL_CACHE_NAME = "credentials";
+
     @Value("${api.username}")
     private String apiUsername;
 
     @Value("${api.password}")
     private String apiPassword;
 
+    @Value("${security.credential-cache.enabled:true}")
+    private boolean credentialCacheEnabled;
+
+    @Value("${security.credential-cache.max-size:1000}")
+    private int credentialCacheMaxSize;
+
+    @Value("${security.credential-cache.ttl-seconds:300}")
+    private long credentialCacheTtlSeconds;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/cache/**").hasRole("USER")
                 .anyRequest().authenticated()
@@ -38,23 +56,34 @@ public class SecurityConfig{
         return http.build();
     }
     @Bean
-    public InMemoryUserDetailsManager userDetailsService() {
+    public InMemoryUserDetailsManager userDetailsService(PasswordEncoder passwordEncoder) {
         UserDetails user = User.builder()
                 .username(apiUsername)
-                .password(passwordEncoder().encode(apiPassword))
+                .password(passwordEncoder.encode(apiPassword))
                 .roles("USER")
                 .build();
 
         UserDetails admin = User.builder()
                 .username("admin")
-                .password(passwordEncoder().encode("adminPass"))
+                .password(passwordEncoder.encode("adminPass"))
                 .roles("USER", "ADMIN")
                 .build();
 
         return new InMemoryUserDetailsManager(user, admin);
     }
+    /**
+     * BCrypt, with successful matches remembered for a short time so that Basic
+     * authentication does not re-run BCrypt on every request
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        if (!credentialCacheEnabled) {
+            return bcrypt;
+        }
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(bcrypt, credentialCacheMaxSize,
+                Duration.ofSeconds(credentialCacheTtlSeconds));
+        CaffeineCacheMetrics.monitor(meterRegistry, encoder.getCache(), CREDENTIAL_CACHE_NAME);
+        return encoder;
     }
 }
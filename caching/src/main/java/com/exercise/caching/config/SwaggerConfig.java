@@ -46,6 +46,7 @@ public class SwaggerConfig {
                         "* Add entities to cache\n" +
                         "* Remove entities from cache\n" +
                         "* Get entities from cache\n" +
+                        "* Get, add and remove entities in batches\n" +
                         "* Clear cache\n" +
                         "* Remove all entities")
                 .termsOfService("http://swagger.io/terms/")
@@ -0,0 +1,34 @@
+package com.exercise.caching.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.exercise.caching.metrics.RequestPhaseMetrics;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RequestPhaseMetrics requestPhaseMetrics;
+
+    public WebConfig(RequestPhaseMetrics requestPhaseMetrics) {
+        this.requestPhaseMetrics = requestPhaseMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestPhaseMetrics);
+    }
+
+    /**
+     * Adds the binary CachedEntity format after the default converters, so JSON stays
+     * the response format unless a client explicitly accepts the binary media type.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CachedEntityHttpMessageConverter());
+    }
+}
@@ -1,9 +1,12 @@
 package com.exercise.caching.controller;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -12,10 +15,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.exercise.caching.config.PreSerializedResponses;
 import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.model.BatchIdsRequest;
+import com.exercise.caching.model.BatchPutRequest;
+import com.exercise.caching.model.BatchResponse;
+import com.exercise.caching.model.BatchResult;
 import com.exercise.caching.model.CachedEntity;
 import com.exercise.caching.model.ErrorResponse;
 import com.exercise.caching.service.CachingService;
@@ -38,9 +47,14 @@ public class CachingController {
 	
 	private static final Logger logger = LoggerFactory.getLogger(CachingController.class);
     private final CachingService cachingService;
+    private final PreSerializedResponses preSerializedResponses;
 
-    public CachingController(CachingService cacheService) {
+    @Value("${cache.batch.max-size:100}")
+    private int maxBatchSize;
+
+    public CachingController(CachingService cacheService, PreSerializedResponses preSerializedResponses) {
         this.cachingService = cacheService;
+        this.preSerializedResponses = preSerializedResponses;
     }
 
     @PostMapping
@@ -75,12 +89,19 @@ public class CachingController {
         }
     }
 
+    /**
+     * Returns the entity with its entity tag as ETag. Spring answers a GET whose
+     * If-None-Match matches the tag with 304 Not Modified before any message converter
+     * runs, so an unchanged entity is not serialized again. With cache.response-bytes
+     * enabled, JSON bodies kept on the cached entity are written as they are.
+     */
     @GetMapping("/{id}")
     @Operation(summary = "Get entity by ID")
     @ApiResponses(value = {
     	    @ApiResponse(responseCode = "200", 
     	                description = "Entity retrieved successfully",
     	                content = @Content(schema = @Schema(implementation = CachedEntity.class))),
+    	    @ApiResponse(responseCode = "304", description = "Entity unchanged since the ETag sent in If-None-Match"),
     	    @ApiResponse(responseCode = "400", 
     	                description = "Invalid input",
     	                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -90,12 +111,21 @@ public class CachingController {
     	})
     public ResponseEntity<?> get(
             @Parameter(description = "ID of the entity", required = true)
-            @PathVariable @NotBlank String id) {
+            @PathVariable @NotBlank String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             logger.debug("Received request to get entity with ID: {}", id);
             CachedEntity entity = cachingService.get(id);
             logger.info("Successfully retrieved entity with ID: {}", id);
-            return ResponseEntity.ok(entity);
+            ResponseEntity<byte[]> preSerialized = preSerializedResponses.response(entity, accept, acceptEncoding);
+            if (preSerialized != null) {
+                return preSerialized;
+            }
+            return ResponseEntity.ok()
+                    .eTag(PreSerializedResponses.weakETag(entity.getEntityTag()))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(entity);
         } catch (EntityNotFoundException e) {
             logger.warn("Entity not found with ID: {}", id);
             return buildErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
@@ -172,6 +202,94 @@ public class CachingController {
                 "Error clearing cache");
         }
     }
+
+    @PostMapping("/batch/get")
+    @Operation(summary = "Get entities by ID", description = "Retrieves several entities, loading cache misses with a single database query")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-ID results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many IDs",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> getBatch(
+            @Parameter(description = "IDs of the entities", required = true)
+            @Valid @RequestBody BatchIdsRequest request) {
+        if (request.getIds().size() > maxBatchSize) {
+            return buildBatchTooLargeResponse(request.getIds().size());
+        }
+        try {
+            logger.debug("Received request to get {} entities", request.getIds().size());
+            List<BatchResult> results = cachingService.getBatch(request.getIds());
+            logger.info("Successfully processed batch get of {} entities", results.size());
+            return ResponseEntity.ok(new BatchResponse(results));
+        } catch (Exception e) {
+            logger.error("Error retrieving entities", e);
+            return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error retrieving entities");
+        }
+    }
+
+    @PostMapping("/batch/put")
+    @Operation(summary = "Add entities to cache", description = "Adds several entities and persists them with one batch update")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-ID results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many entities",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> putBatch(
+            @Parameter(description = "Entities to be added", required = true)
+            @Valid @RequestBody BatchPutRequest request) {
+        if (request.getEntities().size() > maxBatchSize) {
+            return buildBatchTooLargeResponse(request.getEntities().size());
+        }
+        try {
+            logger.debug("Received request to add {} entities", request.getEntities().size());
+            List<BatchResult> results = cachingService.addBatch(request.getEntities());
+            logger.info("Successfully processed batch put of {} entities", results.size());
+            return ResponseEntity.ok(new BatchResponse(results));
+        } catch (Exception e) {
+            logger.error("Error adding entities", e);
+            return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error adding entities");
+        }
+    }
+
+    @PostMapping("/batch/delete")
+    @Operation(summary = "Remove entities", description = "Removes several entities from cache and database with one batch update")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-ID results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many IDs",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> deleteBatch(
+            @Parameter(description = "IDs of the entities to remove", required = true)
+            @Valid @RequestBody BatchIdsRequest request) {
+        if (request.getIds().size() > maxBatchSize) {
+            return buildBatchTooLargeResponse(request.getIds().size());
+        }
+        try {
+            logger.debug("Received request to remove {} entities", request.getIds().size());
+            List<BatchResult> results = cachingService.removeBatch(request.getIds());
+            logger.info("Successfully processed batch delete of {} entities", results.size());
+            return ResponseEntity.ok(new BatchResponse(results));
+        } catch (Exception e) {
+            logger.error("Error removing entities", e);
+            return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error removing entities");
+        }
+    }
+
+    private ResponseEntity<ErrorResponse> buildBatchTooLargeResponse(int size) {
+        logger.warn("Rejecting batch of {} keys, maximum is {}", size, maxBatchSize);
+        return buildErrorResponse(HttpStatus.BAD_REQUEST,
+            "Batch size " + size + " exceeds the maximum of " + maxBatchSize);
+    }
+
     private ResponseEntity<ErrorResponse> buildErrorResponse(HttpStatus status, String message) {
         ErrorResponse errorResponse =  new ErrorResponse(status.value(), message);
         return new ResponseEntity<>(errorResponse, status);
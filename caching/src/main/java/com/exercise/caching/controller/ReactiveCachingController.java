@@ -0,0 +1,121 @@
+package com.exercise.caching.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.exercise.caching.exception.ValidationException;
+import com.exercise.caching.model.BatchIdsRequest;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.ErrorResponse;
+import com.exercise.caching.service.ReactiveCachingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The caching operations with Mono and Flux results. Spring MVC completes them
+ * asynchronously, so the servlet thread is released while an entity is loaded, and
+ * streams Flux results element by element. Errors are mapped by the global exception
+ * handler.
+ */
+@RestController
+@RequestMapping("/api/reactive/caching")
+@Tag(name = "Reactive Caching Controller", description = "Non-blocking cache management endpoints")
+@Validated
+public class ReactiveCachingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCachingController.class);
+    private final ReactiveCachingService reactiveCachingService;
+
+    @Value("${cache.reactive.stream.max-size:10000}")
+    private int maxStreamSize;
+
+    public ReactiveCachingController(ReactiveCachingService reactiveCachingService) {
+        this.reactiveCachingService = reactiveCachingService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Add entity to cache")
+    public Mono<CachedEntity> add(@Parameter(description = "Entity to be added", required = true)
+                                  @Valid @RequestBody CachedEntity entity) {
+        logger.debug("Reactive API call to add entity: {}", entity);
+        return reactiveCachingService.add(entity);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get entity by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Entity found",
+                    content = @Content(schema = @Schema(implementation = CachedEntity.class))),
+        @ApiResponse(responseCode = "404", description = "Entity not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Mono<CachedEntity> get(@Parameter(description = "ID of the entity", required = true)
+                                  @PathVariable @NotBlank String id) {
+        logger.debug("Reactive API call to get entity with ID: {}", id);
+        return reactiveCachingService.get(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remove entity by ID")
+    public Mono<Void> remove(@Parameter(description = "ID of the entity to remove", required = true)
+                             @PathVariable @NotBlank String id) {
+        logger.debug("Reactive API call to remove entity with ID: {}", id);
+        return reactiveCachingService.remove(id);
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Remove all entities")
+    public Mono<Void> removeAll() {
+        logger.debug("Reactive API call to remove all entities");
+        return reactiveCachingService.removeAll();
+    }
+
+    @PostMapping("/clear")
+    @Operation(summary = "Clear cache", description = "Clears all entities from cache only")
+    public Mono<Void> clear() {
+        logger.debug("Reactive API call to clear cache");
+        return reactiveCachingService.clear();
+    }
+
+    @PostMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream entities by ID",
+               description = "Emits one newline-delimited JSON result per distinct ID as soon as it is resolved, in completion order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-ID results",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                       schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many IDs",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Flux<BatchResult> stream(@Parameter(description = "IDs of the entities", required = true)
+                                    @Valid @RequestBody BatchIdsRequest request) {
+        if (request.getIds().size() > maxStreamSize) {
+            logger.warn("Rejecting stream of {} keys, maximum is {}", request.getIds().size(), maxStreamSize);
+            throw new ValidationException("Stream size " + request.getIds().size()
+                    + " exceeds the maximum of " + maxStreamSize);
+        }
+        logger.debug("Reactive API call to stream {} entities", request.getIds().size());
+        return reactiveCachingService.getEach(request.getIds());
+    }
+}
@@ -0,0 +1,60 @@
+package com.exercise.caching.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every public CachingRepository method as cache.repository, tagged with the
+ * method name and the exception thrown, if any, with a percentile histogram. The time
+ * also counts towards the database phase of the current request. Timers are looked up
+ * once per method and outcome and then kept, so a call does not go through the registry.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    public static final String METRIC_NAME = "cache.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.exercise.caching.repository.CachingRepository.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(joinPoint.getSignature().getName(), exception).record(elapsed, TimeUnit.NANOSECONDS);
+            RequestPhaseMetrics.recordDatabaseTime(elapsed);
+        }
+    }
+
+    private Timer timer(String method, String exception) {
+        return timers.computeIfAbsent(new TimerKey(method, exception), key -> Timer.builder(METRIC_NAME)
+                .description("Time spent in CachingRepository methods")
+                .tag("method", key.method())
+                .tag("exception", key.exception())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private record TimerKey(String method, String exception) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.exercise.caching.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Splits the latency of each request into the time spent in the database, in the
+ * controller and caching layers, and in writing the response body, published as
+ * http.server.requests.phase timers tagged with the endpoint and phase.
+ * <p>
+ * Database time is reported by {@link RepositoryMetricsAspect} on the request thread;
+ * serialization starts when the response body advice is invoked and ends when the
+ * request completes. Requests handled asynchronously, such as the reactive API, are
+ * not broken down because their work does not run on the request thread.
+ */
+@ControllerAdvice
+public class RequestPhaseMetrics implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    public static final String METRIC_NAME = "http.server.requests.phase";
+
+    private static final ThreadLocal<Phases> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestPhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Adds database time to the request being handled on this thread, if any
+     * @param nanos The elapsed time in nanoseconds
+     */
+    static void recordDatabaseTime(long nanos) {
+        Phases phases = CURRENT.get();
+        if (phases != null) {
+            phases.databaseNanos += nanos;
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            CURRENT.set(new Phases(System.nanoTime()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CURRENT.remove();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Phases phases = CURRENT.get();
+        if (phases != null && phases.serializationStart == 0) {
+            phases.serializationStart = System.nanoTime();
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Phases phases = CURRENT.get();
+        if (phases == null) {
+            return;
+        }
+        CURRENT.remove();
+        long end = System.nanoTime();
+        long handled = phases.serializationStart != 0 ? phases.serializationStart : end;
+        long serialization = end - handled;
+        long cache = Math.max(0, handled - phases.start - phases.databaseNanos);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        record(request.getMethod(), uri, "db", phases.databaseNanos);
+        record(request.getMethod(), uri, "cache", cache);
+        record(request.getMethod(), uri, "serialization", serialization);
+    }
+
+    private void record(String method, String uri, String phase, long nanos) {
+        Timer.builder(METRIC_NAME)
+                .description("Request latency by phase: database, caching layer and response serialization")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Phases {
+
+        private final long start;
+        private long databaseNanos;
+        private long serializationStart;
+
+        private Phases(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.exercise.caching.model;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "IDs of the entities of a batch request")
+public class BatchIdsRequest {
+
+	@Schema(description = "IDs of the entities")
+	@NotEmpty(message = "IDs cannot be empty")
+	private List<String> ids;
+
+	public BatchIdsRequest(List<String> ids) {
+		this.ids = ids;
+	}
+}
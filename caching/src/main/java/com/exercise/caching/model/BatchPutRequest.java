@@ -0,0 +1,22 @@
+package com.exercise.caching.model;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Entities of a batch put request")
+public class BatchPutRequest {
+
+	@Schema(description = "Entities to be added")
+	@NotEmpty(message = "Entities cannot be empty")
+	private List<CachedEntity> entities;
+
+	public BatchPutRequest(List<CachedEntity> entities) {
+		this.entities = entities;
+	}
+}
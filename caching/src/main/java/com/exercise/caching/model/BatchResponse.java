@@ -0,0 +1,20 @@
+package com.exercise.caching.model;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Per-key results of a batch request")
+public class BatchResponse {
+
+	@Schema(description = "Results in request order")
+	private List<BatchResult> results;
+
+	public BatchResponse(List<BatchResult> results) {
+		this.results = results;
+	}
+}
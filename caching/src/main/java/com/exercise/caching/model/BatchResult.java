@@ -0,0 +1,45 @@
+package com.exercise.caching.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result for a single key of a batch request")
+public class BatchResult {
+
+	@Schema(description = "ID of the entity")
+	private String id;
+
+	@Schema(description = "Outcome for this ID")
+	private BatchStatus status;
+
+	@Schema(description = "The entity, for found or stored entities")
+	private CachedEntity entity;
+
+	@Schema(description = "Reason of the failure, for invalid or failed keys")
+	private String message;
+
+	public BatchResult(String id, BatchStatus status, CachedEntity entity, String message) {
+		this.id = id;
+		this.status = status;
+		this.entity = entity;
+		this.message = message;
+	}
+
+	public static BatchResult of(String id, BatchStatus status) {
+		return new BatchResult(id, status, null, null);
+	}
+
+	public static BatchResult of(CachedEntity entity, BatchStatus status) {
+		return new BatchResult(entity.getId(), status, entity, null);
+	}
+
+	public static BatchResult failed(String id, BatchStatus status, String message) {
+		return new BatchResult(id, status, null, message);
+	}
+}
@@ -0,0 +1,13 @@
+package com.exercise.caching.model;
+
+/**
+ * Outcome of a single key of a batch request
+ */
+public enum BatchStatus {
+	FOUND,
+	NOT_FOUND,
+	STORED,
+	DELETED,
+	INVALID,
+	ERROR
+}
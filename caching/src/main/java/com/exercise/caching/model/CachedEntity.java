@@ -1,17 +1,32 @@
 package com.exercise.caching.model;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+// Compared and printed by field, so equals, hashCode and toString never inflate compressed data
 @Data
+@EqualsAndHashCode(doNotUseGetters = true)
+@ToString(doNotUseGetters = true)
 @NoArgsConstructor
-@AllArgsConstructor
 @Schema(description = "Caching Model")
 public class CachedEntity implements Serializable {
 
@@ -23,11 +38,50 @@ public class CachedEntity implements Serializable {
     private String id;
     
     @Schema(description = "Data content of the entity")
+    @ToString.Exclude
     private String data;
     
     @Schema(description = "Last accessed timestamp")
     private LocalDateTime cacheAccessedTime;
 
+    @Schema(description = "Time to live in seconds from when the entity is stored; the configured expiry applies when absent. "
+            + "Entities loaded from the database report the time remaining.")
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds;
+
+    // Fixed when the entity is stored with a TTL, so copies kept elsewhere expire with it
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long expiresAt;
+
+    // When the first cache tier expires the entity, in epoch milliseconds. Kept through
+    // demotion to the off-heap tier and promotion back, so neither extends its lifetime.
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile Long cacheExpiresAt;
+
+    // Replaces data when set; inflated only when the data is read. Entities holding the
+    // same data as text and compressed are not equal.
+    @JsonIgnore
+    @ToString.Exclude
+    private byte[] deflatedData;
+
+    // Computed on first use after a change, so cached entities hash their content once
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private transient volatile String entityTag;
+
+    // Bumped by every setter, so bodies kept by PreSerializedResponses can tell they are stale
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private transient volatile int revision;
+
     // All args constructor
     public CachedEntity(String id, String data, LocalDateTime createdAt) {
         this.id = id;
@@ -42,14 +96,43 @@ public class CachedEntity implements Serializable {
 
     public void setId(String id) {
         this.id = id;
+        changed();
     }
 
+    /**
+     * @return The data, inflated on every call while it is held compressed; see
+     * DataCompressor#inflated for a copy to serialize
+     */
     public String getData() {
-        return data;
+        return deflatedData != null ? DataDeflater.inflate(deflatedData) : data;
     }
 
     public void setData(String data) {
         this.data = data;
+        this.deflatedData = null;
+        changed();
+    }
+
+    /**
+     * @return The data compressed with DataDeflater, or null if it is held as text
+     */
+    @JsonIgnore
+    public byte[] getDeflatedData() {
+        return deflatedData;
+    }
+
+    /**
+     * Holds the data compressed instead of as text
+     */
+    public void setDeflatedData(byte[] deflatedData) {
+        this.deflatedData = deflatedData;
+        this.data = null;
+        changed();
+    }
+
+    @JsonIgnore
+    public boolean isCompressed() {
+        return deflatedData != null;
     }
 
     public LocalDateTime getCacheAccessedTime() {
@@ -58,6 +141,109 @@ public class CachedEntity implements Serializable {
 
     public void setCacheAccessedTime(LocalDateTime lastAccessed) {
         this.cacheAccessedTime = lastAccessed;
+        changed();
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+        this.expiresAt = null;
+        changed();
+    }
+
+    /**
+     * @return When the entity expires, in epoch milliseconds, or null if it has no TTL
+     * or has not been stored yet
+     */
+    @JsonIgnore
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return When the first cache tier expires the entity, in epoch milliseconds, or null
+     * if it has not been cached
+     */
+    @JsonIgnore
+    public Long getCacheExpiresAt() {
+        return cacheExpiresAt;
+    }
+
+    public void setCacheExpiresAt(Long cacheExpiresAt) {
+        this.cacheExpiresAt = cacheExpiresAt;
+    }
+
+    /**
+     * Fixes the expiry at ttlSeconds from the given time, or clears it without a TTL.
+     * Called once when the entity is stored; later copies keep the same expiry.
+     * @param nowMillis The time the entity is stored, in epoch milliseconds
+     */
+    public void startTtl(long nowMillis) {
+        this.expiresAt = ttlSeconds != null ? nowMillis + TimeUnit.SECONDS.toMillis(ttlSeconds) : null;
+    }
+
+    /**
+     * @return Whether the entity has a fixed expiry that is not after the given time
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiresAt != null && expiresAt <= nowMillis;
+    }
+
+    /**
+     * @return An opaque HTTP entity tag for the entity's id and data, the first 128 bits
+     * of their SHA-256, hashing compressed data as held. The access time and TTL are left
+     * out, so a reloaded entity keeps its tag; responses send it as a weak tag for the
+     * same reason. It is computed once and kept until a setter changes the entity.
+     */
+    @JsonIgnore
+    public String getEntityTag() {
+        String tag = entityTag;
+        if (tag == null) {
+            tag = digest(id, deflatedData != null ? deflatedData : data != null ? data.getBytes(StandardCharsets.UTF_8) : null);
+            entityTag = tag;
+        }
+        return tag;
+    }
+
+    /**
+     * @return A number that changes whenever a setter changes the entity
+     */
+    @JsonIgnore
+    public int getRevision() {
+        return revision;
+    }
+
+    @ToString.Include(name = "data")
+    private String dataForToString() {
+        return deflatedData != null ? "<" + deflatedData.length + " bytes deflated>" : data;
+    }
+
+    // Drops everything derived from the previous content
+    private void changed() {
+        entityTag = null;
+        revision++;
+    }
+
+    private static String digest(String id, byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefixed, so the boundary between id and data is part of the hash
+            byte[] idBytes = id != null ? id.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(id != null ? idBytes.length : -1).array());
+            digest.update(idBytes);
+            digest.update(data != null ? data : new byte[0]);
+            byte[] hash = digest.digest();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
   
@@ -68,7 +254,7 @@ public class CachedEntity implements Serializable {
     }
 
     public static class Builder {
-        private  CachedEntity entity;
+        private final CachedEntity entity = new CachedEntity();
 
      
         public Builder id(String id) {
@@ -86,6 +272,11 @@ public class CachedEntity implements Serializable {
             return this;
         }
 
+        public Builder ttlSeconds(Long ttlSeconds) {
+            entity.setTtlSeconds(ttlSeconds);
+            return this;
+        }
+
       
 
         public CachedEntity build() {
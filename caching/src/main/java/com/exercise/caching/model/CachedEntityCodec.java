@@ -0,0 +1,153 @@
+package com.exercise.caching.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of a CachedEntity, used by the cache tiers, snapshots and
+ * the binary HTTP media type instead of Java serialization.
+ * <p>
+ * Layout (big-endian): a version byte; id and data as a 4-byte length followed by
+ * that many UTF-8 bytes, with length -1 for null; cacheAccessedTime as 8-byte epoch
+ * milliseconds in UTC, with Long.MIN_VALUE for null; ttlSeconds as 8 bytes, with
+ * Long.MIN_VALUE for null. Access times are truncated to milliseconds. Version 1
+ * encodings, which end after the access time, are still decoded.
+ * <p>
+ * Entities holding compressed data are encoded as version 3, with the same layout but
+ * the DataDeflater bytes in place of the UTF-8 data, and decoded still compressed.
+ * {@link #encodeInflated} always writes version 2, for clients.
+ */
+public final class CachedEntityCodec {
+
+    public static final byte VERSION = 2;
+    public static final byte VERSION_DEFLATED = 3;
+    private static final byte VERSION_WITHOUT_TTL = 1;
+
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final long NULL_TTL = Long.MIN_VALUE;
+
+    private CachedEntityCodec() {
+    }
+
+    /**
+     * Encodes the entity as held, keeping compressed data compressed
+     */
+    public static byte[] encode(CachedEntity entity) {
+        return entity.isCompressed()
+                ? encode(VERSION_DEFLATED, entity, entity.getDeflatedData())
+                : encode(VERSION, entity, utf8(entity.getData()));
+    }
+
+    /**
+     * Encodes the entity with its data as text, inflating it if it is held compressed
+     */
+    public static byte[] encodeInflated(CachedEntity entity) {
+        return encode(VERSION, entity, utf8(entity.getData()));
+    }
+
+    private static byte[] encode(byte version, CachedEntity entity, byte[] data) {
+        byte[] id = utf8(entity.getId());
+        ByteBuffer buffer = ByteBuffer.allocate(1 + length(id) + length(data) + 2 * Long.BYTES);
+        buffer.put(version);
+        putBytes(buffer, id);
+        putBytes(buffer, data);
+        buffer.putLong(toEpochMillis(entity.getCacheAccessedTime()));
+        buffer.putLong(entity.getTtlSeconds() != null ? entity.getTtlSeconds() : NULL_TTL);
+        return buffer.array();
+    }
+
+    public static CachedEntity decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads one entity from the buffer's position, leaving it after the entity
+     * @throws IllegalArgumentException if the bytes are not a supported encoding
+     */
+    public static CachedEntity decode(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION && version != VERSION_DEFLATED && version != VERSION_WITHOUT_TTL) {
+                throw new IllegalArgumentException("Unsupported CachedEntity encoding version: " + version);
+            }
+            String id = getString(buffer);
+            CachedEntity entity = new CachedEntity(id, null, null);
+            if (version == VERSION_DEFLATED) {
+                entity.setDeflatedData(getBytes(buffer));
+            } else {
+                entity.setData(getString(buffer));
+            }
+            entity.setCacheAccessedTime(fromEpochMillis(buffer.getLong()));
+            if (version != VERSION_WITHOUT_TTL) {
+                long ttl = buffer.getLong();
+                entity.setTtlSeconds(ttl != NULL_TTL ? ttl : null);
+            }
+            return entity;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated CachedEntity encoding", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return Integer.BYTES + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (!buffer.hasArray()) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int getLength(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length != NULL_LENGTH && (length < 0 || length > buffer.remaining())) {
+            throw new IllegalArgumentException("Invalid string length in CachedEntity encoding: " + length);
+        }
+        return length;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_TIME;
+    }
+
+    private static LocalDateTime fromEpochMillis(long millis) {
+        return millis != NULL_TIME ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.exercise.caching.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression of entity data: the UTF-8 bytes of the text as a zlib stream,
+ * which carries a checksum so corrupted data fails to inflate instead of being served.
+ */
+public final class DataDeflater {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private DataDeflater() {
+    }
+
+    public static byte[] deflate(String text, int level) {
+        return deflate(text.getBytes(StandardCharsets.UTF_8), level);
+    }
+
+    /**
+     * @param input The UTF-8 bytes of the text
+     */
+    public static byte[] deflate(byte[] input, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(input.length, BUFFER_SIZE));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a valid zlib stream
+     */
+    public static String inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(4 * deflated.length);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated deflated data");
+                }
+                output.write(buffer, 0, inflated);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflated data: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
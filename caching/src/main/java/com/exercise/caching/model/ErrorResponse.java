@@ -2,12 +2,10 @@ package com.exercise.caching.model;
 
 
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class ErrorResponse {
 	
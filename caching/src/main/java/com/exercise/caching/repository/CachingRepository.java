@@ -1,14 +1,26 @@
 package com.exercise.caching.repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,40 +28,43 @@ import org.springframework.transaction.annotation.Transactional;
 import com.exercise.caching.exception.DBException;
 import com.exercise.caching.model.CachedEntity;
 
-import jakarta.annotation.PostConstruct;
-
 @Repository
 public class CachingRepository {
 
-	private static final String CREATE_SQL = """
-	    CREATE TABLE IF NOT EXISTS cache_info (
-	        id VARCHAR(255) PRIMARY KEY,
-	        data VARCHAR(255),
-	        last_accessed TIMESTAMP
-	    )
-	""";
-	private static final String SAVE_SQL = "MERGE INTO cached_entities (id, data, last_accessed) VALUES (?, ?, ?)";
-	private static final String SELECT_SQL = "SELECT * FROM cached_entities WHERE id = ?";
+	// Never moves last_accessed backwards, as write-backs of evicted entities carry the access
+	// time from when they were cached while hits since then were flushed by AccessTimeRecorder
+	private static final String SAVE_SQL = "MERGE INTO cached_entities t USING (VALUES (CAST(? AS VARCHAR), CAST(? AS CLOB), "
+			+ "CAST(? AS VARBINARY), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) "
+			+ "s (id, data, data_deflated, last_accessed, ttl_seconds, expires_at) ON t.id = s.id "
+			+ "WHEN MATCHED THEN UPDATE SET data = s.data, data_deflated = s.data_deflated, "
+			+ "last_accessed = COALESCE(GREATEST(t.last_accessed, s.last_accessed), t.last_accessed, s.last_accessed), "
+			+ "ttl_seconds = s.ttl_seconds, expires_at = s.expires_at "
+			+ "WHEN NOT MATCHED THEN INSERT (id, data, data_deflated, last_accessed, ttl_seconds, expires_at) "
+			+ "VALUES (s.id, s.data, s.data_deflated, s.last_accessed, s.ttl_seconds, s.expires_at)";
+	// Expired rows are left for the sweeper but never served
+	private static final String NOT_EXPIRED = "(expires_at IS NULL OR expires_at > ?)";
+	private static final String SELECT_SQL = "SELECT * FROM cached_entities WHERE id = ? AND " + NOT_EXPIRED;
+	private static final String UPDATE_ACCESS_TIME_SQL = "UPDATE cached_entities SET last_accessed = ? WHERE id = ?";
+	private static final String SELECT_IN_SQL = "SELECT * FROM cached_entities WHERE id IN (%s) AND " + NOT_EXPIRED;
 	private static final String DELETE_SQL = "DELETE FROM cached_entities WHERE id = ?";
-	private static final String DELETE_ALL_SQL = "DELETE FROM cached_entities";
-	private static final String EXISTS_BY_ID_SQL = "SELECT id FROM cache_entities WHERE id = ?";
+	// Deletes are chunked so each statement only locks a bounded number of rows
+	private static final String DELETE_ALL_SQL = "DELETE FROM cached_entities LIMIT ?";
+	// Sweeps return the IDs they deleted, so the cache tiers can drop the same entities
+	private static final String DELETE_EXPIRED_SQL = "SELECT id FROM OLD TABLE (DELETE FROM cached_entities WHERE expires_at <= ? LIMIT ?)";
+	// Rows never accessed count from when they were stored
+	private static final String DELETE_NOT_ACCESSED_SQL = "SELECT id FROM OLD TABLE (DELETE FROM cached_entities "
+			+ "WHERE last_accessed < ? OR (last_accessed IS NULL AND created_at < ?) LIMIT ?)";
+	private static final String SELECT_MOST_RECENT_SQL = "SELECT id, data, data_deflated, last_accessed, ttl_seconds, expires_at FROM cached_entities WHERE "
+			+ NOT_EXPIRED + " ORDER BY last_accessed DESC NULLS LAST LIMIT ?";
+	private static final String EXISTS_BY_ID_SQL = "SELECT 1 FROM cached_entities WHERE id = ? LIMIT 1";
 	private static final Logger logger = LoggerFactory.getLogger(CachingRepository.class);
     private final JdbcTemplate jdbcTemplate;
+    private final int deleteChunkSize;
 
-    public CachingRepository(JdbcTemplate jdbcTemplate) {
+    public CachingRepository(JdbcTemplate jdbcTemplate,
+                             @Value("${cache.delete.chunk-size:1000}") int deleteChunkSize) {
         this.jdbcTemplate = jdbcTemplate;
-    }
-
-    @PostConstruct
-    public void createTable() {
-        try {
-            logger.info("Creating cache_info table if not exists");
-            jdbcTemplate.execute(CREATE_SQL);
-            logger.info("Table creation is successful");
-        } catch (DataAccessException e) {
-            logger.error("Error creating table: {}", e.getMessage(), e);
-            throw new DBException("Failed to create table", e);
-        }
+        this.deleteChunkSize = deleteChunkSize;
     }
 
     public void save(CachedEntity entity) {
@@ -58,8 +73,11 @@ public class CachingRepository {
             
             jdbcTemplate.update(SAVE_SQL, 
                 entity.getId(), 
-                entity.getData(), 
-                Timestamp.valueOf(entity.getCacheAccessedTime())
+                entity.isCompressed() ? null : entity.getData(),
+                entity.getDeflatedData(),
+                toTimestamp(entity.getCacheAccessedTime()),
+                entity.getTtlSeconds(),
+                expiresAt(entity, System.currentTimeMillis())
             );
             logger.debug("Entity saved successfully");
         } catch (DataAccessException e) {
@@ -68,10 +86,60 @@ public class CachingRepository {
         }
     }
 
+    /**
+     * Saves several entities with one JDBC batch
+     * @param entities The entities to save
+     */
+    public void saveAll(List<CachedEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        try {
+            logger.debug("Saving {} entities", entities.size());
+            List<Object[]> batchArgs = new ArrayList<>(entities.size());
+            long now = System.currentTimeMillis();
+            for (CachedEntity entity : entities) {
+                batchArgs.add(new Object[] {
+                    entity.getId(),
+                    entity.isCompressed() ? null : entity.getData(),
+                    entity.getDeflatedData(),
+                    toTimestamp(entity.getCacheAccessedTime()),
+                    entity.getTtlSeconds(),
+                    expiresAt(entity, now)
+                });
+            }
+            jdbcTemplate.batchUpdate(SAVE_SQL, batchArgs);
+            logger.debug("Entities saved successfully");
+        } catch (DataAccessException e) {
+            logger.error("Error saving entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to save entities", e);
+        }
+    }
+
+    /**
+     * Updates the last accessed time of several entities with one JDBC batch
+     * @param accessTimes Access timestamps in epoch milliseconds, keyed by entity ID
+     */
+    public void updateAccessTimes(Map<String, Long> accessTimes) {
+        if (accessTimes.isEmpty()) {
+            return;
+        }
+        try {
+            logger.debug("Updating access time of {} entities", accessTimes.size());
+            List<Object[]> batchArgs = new ArrayList<>(accessTimes.size());
+            accessTimes.forEach((id, accessedAt) -> batchArgs.add(new Object[] {new Timestamp(accessedAt), id}));
+            jdbcTemplate.batchUpdate(UPDATE_ACCESS_TIME_SQL, batchArgs);
+            logger.debug("Access times updated successfully");
+        } catch (DataAccessException e) {
+            logger.error("Error updating access times: {}", e.getMessage(), e);
+            throw new DBException("Failed to update access times", e);
+        }
+    }
+
     public Optional<CachedEntity> findById(String id) {
         try {
             logger.debug("Finding entity by ID: {}", id);
-            List<CachedEntity> results = jdbcTemplate.query(SELECT_SQL,cacheEntityRowMapper,id);
+            List<CachedEntity> results = jdbcTemplate.query(SELECT_SQL,cacheEntityRowMapper,id,now());
             
             return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
         } catch (DataAccessException e) {
@@ -80,6 +148,50 @@ public class CachingRepository {
         }
     }
 
+    /**
+     * Finds several entities with a single IN-list query
+     * @param ids The IDs of the entities
+     * @return The entities found, in no particular order
+     */
+    public List<CachedEntity> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            logger.debug("Finding {} entities by ID", ids.size());
+            String sql = String.format(SELECT_IN_SQL, String.join(",", Collections.nCopies(ids.size(), "?")));
+            Object[] args = ids.toArray(new Object[ids.size() + 1]);
+            args[ids.size()] = now();
+            return jdbcTemplate.query(sql, cacheEntityRowMapper, args);
+        } catch (DataAccessException e) {
+            logger.error("Error finding entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to find entities", e);
+        }
+    }
+
+    /**
+     * Streams the most recently accessed entities, newest first, to the given action one
+     * row at a time instead of collecting them into a list
+     * @param limit The maximum number of entities
+     * @param fetchSize The number of rows the driver fetches per round trip
+     * @param action Called for each entity on the calling thread
+     */
+    public void forEachMostRecentlyAccessed(int limit, int fetchSize, Consumer<CachedEntity> action) {
+        try {
+            logger.debug("Streaming up to {} most recently accessed entities", limit);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_MOST_RECENT_SQL);
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, now());
+                statement.setInt(2, limit);
+                return statement;
+            }, (RowCallbackHandler) rs -> action.accept(cacheEntityRowMapper.mapRow(rs, rs.getRow())));
+        } catch (DataAccessException e) {
+            logger.error("Error streaming most recently accessed entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to stream most recently accessed entities", e);
+        }
+    }
+
     public void deleteById(String id) {
         try {
             logger.debug("Deleting entity by ID: {}", id);
@@ -92,38 +204,145 @@ public class CachingRepository {
         }
     }
 
-    public void deleteAll() {
+    /**
+     * Deletes several entities with one JDBC batch
+     * @param ids The IDs of the entities
+     * @return The number of rows deleted for each ID, in the same order
+     */
+    public int[] deleteAllById(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        try {
+            logger.debug("Deleting {} entities by ID", ids.size());
+            List<Object[]> batchArgs = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                batchArgs.add(new Object[] {id});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, batchArgs);
+            logger.debug("Entities deleted successfully");
+            return counts;
+        } catch (DataAccessException e) {
+            logger.error("Error deleting entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to delete entities", e);
+        }
+    }
+
+    /**
+     * Deletes all entities in chunks of cache.delete.chunk-size rows, one statement
+     * per chunk, so the table is never locked as a whole. Outside a transaction each
+     * chunk commits on its own.
+     * @return The number of rows deleted
+     */
+    public long deleteAll() {
         try {
-            logger.debug("Deleting all entities");
-          
-            jdbcTemplate.update(DELETE_ALL_SQL);
-            logger.debug("All entities deleted successfully");
+            logger.debug("Deleting all entities in chunks of {}", deleteChunkSize);
+            long deleted = 0;
+            int chunk;
+            do {
+                chunk = jdbcTemplate.update(DELETE_ALL_SQL, deleteChunkSize);
+                deleted += chunk;
+            } while (chunk == deleteChunkSize);
+            logger.debug("Deleted all {} entities", deleted);
+            return deleted;
         } catch (DataAccessException e) {
             logger.error("Error deleting all entities: {}", e.getMessage(), e);
             throw new DBException("Failed to delete all entities", e);
         }
     }
+
+    /**
+     * Deletes up to limit rows whose TTL ran out at or before the given time
+     * @param nowMillis The current time in epoch milliseconds
+     * @param limit The maximum number of rows to delete
+     * @return The IDs of the rows deleted
+     */
+    public List<String> deleteExpired(long nowMillis, int limit) {
+        try {
+            return jdbcTemplate.queryForList(DELETE_EXPIRED_SQL, String.class, new Timestamp(nowMillis), limit);
+        } catch (DataAccessException e) {
+            logger.error("Error deleting expired entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to delete expired entities", e);
+        }
+    }
+
+    /**
+     * Deletes up to limit rows last accessed before the cutoff, or never accessed and
+     * stored before it
+     * @param cutoff Rows accessed or stored at or after this time are kept
+     * @param limit The maximum number of rows to delete
+     * @return The IDs of the rows deleted
+     */
+    public List<String> deleteNotAccessedSince(LocalDateTime cutoff, int limit) {
+        try {
+            Timestamp cutoffTime = Timestamp.valueOf(cutoff);
+            return jdbcTemplate.queryForList(DELETE_NOT_ACCESSED_SQL, String.class, cutoffTime, cutoffTime, limit);
+        } catch (DataAccessException e) {
+            logger.error("Error deleting stale entities: {}", e.getMessage(), e);
+            throw new DBException("Failed to delete stale entities", e);
+        }
+    }
+    /**
+     * Probes for a single row instead of counting or fetching the entity
+     * @param id The ID of the entity
+     * @return true if a row with the ID exists
+     */
     @Transactional(readOnly = true)
     public boolean existsById(String id) {
        
         try {
             logger.debug("Checking if entity exists with ID: {}", id);
-            Integer count = jdbcTemplate.queryForObject(EXISTS_BY_ID_SQL, Integer.class, id);
-            return count != null && count > 0;
+            return Boolean.TRUE.equals(jdbcTemplate.query(EXISTS_BY_ID_SQL, existsExtractor, id));
         } catch (DataAccessException e) {
             logger.error("Error checking entity existence: {}", e.getMessage());
             throw new DBException("Failed to check entity existence", e);
         } 
     }
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    // The entity's fixed expiry, or ttlSeconds from now for entities not stored before
+    private static Timestamp expiresAt(CachedEntity entity, long nowMillis) {
+        if (entity.getExpiresAt() != null) {
+            return new Timestamp(entity.getExpiresAt());
+        }
+        Long ttlSeconds = entity.getTtlSeconds();
+        return ttlSeconds != null ? new Timestamp(nowMillis + TimeUnit.SECONDS.toMillis(ttlSeconds)) : null;
+    }
+
+    // Rounded up, so an entity that has not expired yet never gets a zero TTL
+    private static long remainingSeconds(Timestamp expiresAt) {
+        long remainingMillis = expiresAt.getTime() - System.currentTimeMillis();
+        return Math.max(1, (remainingMillis + 999) / 1000);
+    }
+
+    // True as soon as the probe returns a row
+    private static final ResultSetExtractor<Boolean> existsExtractor = ResultSet::next;
+
  // RowMapper for CacheEntity
-    private static final RowMapper<CachedEntity> cacheEntityRowMapper = (rs, rowNum) ->{
+    static final RowMapper<CachedEntity> cacheEntityRowMapper = (rs, rowNum) ->{
     
     	try{
-    		return CachedEntity.builder()
+    		Timestamp lastAccessed = rs.getTimestamp("last_accessed");
+    		Timestamp expiresAt = rs.getTimestamp("expires_at");
+    		CachedEntity entity = CachedEntity.builder()
             .id(rs.getString("id"))
             .data(rs.getString("data"))
-            .cacheAccessedTime(rs.getTimestamp("last_accessed").toLocalDateTime())
+            .cacheAccessedTime(lastAccessed != null ? lastAccessed.toLocalDateTime() : null)
+            .ttlSeconds(expiresAt != null ? remainingSeconds(expiresAt) : null)
             .build();
+    		entity.setExpiresAt(expiresAt != null ? expiresAt.getTime() : null);
+    		byte[] deflatedData = rs.getBytes("data_deflated");
+    		if (deflatedData != null) {
+    		    // Served compressed until the entity is serialized to a client
+    		    entity.setDeflatedData(deflatedData);
+    		}
+    		return entity;
     	}
     	catch (SQLException e) {
             logger.error("Error mapping row to entity: {}", e.getMessage());
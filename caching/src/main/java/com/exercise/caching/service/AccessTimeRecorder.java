@@ -0,0 +1,198 @@
+package com.exercise.caching.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffers entity access times in memory and writes them to the database in batches.
+ * Reads only record (id, timestamp) into a lock-free map that coalesces repeated
+ * accesses to the same id; a background flusher drains it every flush interval or
+ * as soon as a batch worth of ids is pending, and once more on shutdown.
+ * <p>
+ * Each id keeps its timestamp slot until it has been idle for a whole flush interval,
+ * so recording a repeat access allocates nothing. An idle slot is retired before it is
+ * removed from the map, and an access that finds its slot retired records into a new
+ * one, so no access is lost to the removal and the pending count stays exact.
+ */
+@Component
+public class AccessTimeRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTimeRecorder.class);
+    private static final long NONE = Long.MIN_VALUE;
+    // An idle slot being removed from the map, which must not take new accesses
+    private static final long RETIRED = Long.MIN_VALUE + 1;
+    private static final Function<String, AtomicLong> NEW_SLOT = id -> new AtomicLong(NONE);
+
+    private final CachingRepository repository;
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<String, AtomicLong> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger dirty = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "access-time-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AccessTimeRecorder(CachingRepository repository,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.access-time.flush-interval-ms:1000}") long flushIntervalMs,
+                              @Value("${cache.access-time.batch-size:500}") int batchSize,
+                              @Value("${cache.access-time.max-pending:10000}") int maxPending) {
+        this.repository = repository;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        registerCounter(meterRegistry, "buffered", buffered);
+        registerCounter(meterRegistry, "flushed", flushed);
+        registerCounter(meterRegistry, "dropped", dropped);
+    }
+
+    @PostConstruct
+    public void start() {
+        logger.info("Starting access time flusher with interval {} ms and batch size {}", flushIntervalMs, batchSize);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(flushIntervalMs + 5000, TimeUnit.MILLISECONDS)) {
+                logger.warn("Access time flusher did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        logger.info("Access time recorder stopped. Flushed: {}, dropped: {}", getFlushedCount(), getDroppedCount());
+    }
+
+    /**
+     * Records that an entity was accessed now. Never touches the database.
+     * @param id The ID of the accessed entity
+     */
+    public void record(String id) {
+        record(id, System.currentTimeMillis());
+    }
+
+    void record(String id, long accessedAtMillis) {
+        AtomicLong slot = pending.get(id);
+        if (slot == null) {
+            if (pending.size() >= maxPending) {
+                dropped.increment();
+                return;
+            }
+            slot = pending.computeIfAbsent(id, NEW_SLOT);
+        }
+        buffered.increment();
+        long previous;
+        while (true) {
+            previous = slot.get();
+            if (previous == RETIRED) {
+                pending.remove(id, slot);
+                slot = pending.computeIfAbsent(id, NEW_SLOT);
+            } else if (previous != NONE && previous >= accessedAtMillis) {
+                return;  // A later access is already pending
+            } else if (slot.compareAndSet(previous, accessedAtMillis)) {
+                break;
+            }
+        }
+        if (previous == NONE
+                && dirty.incrementAndGet() >= batchSize
+                && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes all pending access times with a single JDBC batch update.
+     * Only called from the flusher thread, or after it has been stopped.
+     */
+    void flush() {
+        flushRequested.set(false);
+        Map<String, Long> batch = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : pending.entrySet()) {
+            long accessedAt = entry.getValue().getAndSet(NONE);
+            if (accessedAt != NONE) {
+                batch.put(entry.getKey(), accessedAt);
+            } else if (entry.getValue().compareAndSet(NONE, RETIRED)) {
+                pending.remove(entry.getKey(), entry.getValue());  // Idle since the last flush
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        dirty.addAndGet(-batch.size());
+        try {
+            repository.updateAccessTimes(batch);
+            flushed.add(batch.size());
+            logger.debug("Flushed {} access times", batch.size());
+        } catch (Exception e) {
+            dropped.add(batch.size());
+            logger.error("Failed to flush {} access times: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Unexpected error while flushing access times: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, String state, LongAdder counter) {
+        FunctionCounter.builder("cache.access.records", counter, LongAdder::sum)
+                .tag("state", state)
+                .description("Access time records buffered, flushed to the database or dropped")
+                .register(meterRegistry);
+    }
+
+    public int getPendingCount() {
+        return dirty.get();
+    }
+
+    public long getBufferedCount() {
+        return buffered.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
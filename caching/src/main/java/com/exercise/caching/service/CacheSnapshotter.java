@@ -0,0 +1,405 @@
+package com.exercise.caching.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Writes the contents of the "cacheEntity" cache to a local file on graceful shutdown
+ * and loads it back on startup, so a restarted instance does not send every first
+ * lookup to the database. All operations are no-ops unless cache.snapshot.enabled is set.
+ * <p>
+ * The snapshot is loaded while the context starts, before the web server, so the
+ * application only reports ready once it is warm; it is written after the web server
+ * has stopped taking requests. Only the first tier is saved, hottest entries first.
+ * <p>
+ * File layout (big-endian): magic, format version and creation time; one record per
+ * entity with the length of its CachedEntityCodec encoding, the encoding and its
+ * expiry time in epoch milliseconds; an end marker and the record count; and a CRC32C
+ * of everything before it. The file is written to a temporary file and moved into
+ * place, and deleted once loaded so that a crash never reloads an older snapshot.
+ * Entries whose expiry has passed are skipped, as are entries beyond the cache's
+ * maximum size or, when it is bounded by weight, its maximum weight.
+ */
+@Component
+public class CacheSnapshotter implements SmartLifecycle {
+
+    static final int MAGIC = 0x43534E50; // "CSNP"
+    static final byte VERSION = 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotter.class);
+    private static final int END_OF_RECORDS = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + Long.BYTES;
+
+    private final Cache<String, CachedEntity> cache; // null with the striped engine
+    private final boolean enabled;
+    private final Path file;
+    private volatile boolean running;
+
+    private volatile long loadedCount;
+    private volatile long skippedCount;
+    private volatile long loadTimeMs;
+    private volatile long savedCount;
+
+    public CacheSnapshotter(Optional<Cache<String, CachedEntity>> caffeineCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.snapshot.enabled:false}") boolean enabled,
+                            @Value("${cache.snapshot.file:cache-snapshot.bin}") String file) {
+        if (enabled && caffeineCache.isEmpty()) {
+            throw new IllegalStateException("cache.snapshot requires cache.engine=caffeine");
+        }
+        this.cache = caffeineCache.orElse(null);
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        if (enabled) {
+            registerEntriesGauge(meterRegistry, "loaded", s -> s.loadedCount);
+            registerEntriesGauge(meterRegistry, "skipped", s -> s.skippedCount);
+            registerEntriesGauge(meterRegistry, "saved", s -> s.savedCount);
+            TimeGauge.builder("cache.snapshot.load.time", this, TimeUnit.MILLISECONDS, s -> s.loadTimeMs)
+                    .description("Time taken to load the cache snapshot on startup")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            load(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (enabled && running) {
+            save(System.currentTimeMillis());
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the embedded web server
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Writes the cache contents to the snapshot file, replacing any previous snapshot
+     * @return The number of entities written, or -1 if the snapshot could not be written
+     */
+    long save(long nowMillis) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChecksummedWriter writer = new ChecksummedWriter(channel);
+            writer.reserve(HEADER_SIZE).putInt(MAGIC).put(VERSION).putLong(nowMillis);
+            for (Map.Entry<String, CachedEntity> entry : hottestFirst().entrySet()) {
+                long expiresAt = expiresAt(entry.getKey(), nowMillis);
+                if (expiresAt <= nowMillis) {
+                    continue;
+                }
+                byte[] bytes = CachedEntityCodec.encode(entry.getValue());
+                writer.reserve(Integer.BYTES + bytes.length + Long.BYTES)
+                        .putInt(bytes.length).put(bytes).putLong(expiresAt);
+                count++;
+            }
+            writer.reserve(Integer.BYTES + Long.BYTES).putInt(END_OF_RECORDS).putLong(count);
+            writer.finish();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write cache snapshot to {}: {}", file, e.getMessage(), e);
+            deleteQuietly(temp);
+            return -1;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Failed to replace cache snapshot {}: {}", file, e.getMessage(), e);
+            deleteQuietly(temp);
+            return -1;
+        }
+        savedCount = count;
+        logger.info("Saved {} cache entries to snapshot {} in {} ms", count, file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return count;
+    }
+
+    /**
+     * Loads the snapshot file into the cache, if there is one. A snapshot that is
+     * truncated or fails its checksum is discarded as a whole.
+     * @return The number of entities loaded
+     */
+    long load(long nowMillis) {
+        if (!Files.exists(file)) {
+            logger.info("No cache snapshot found at {}, starting with an empty cache", file);
+            return 0;
+        }
+        long start = System.nanoTime();
+        Map<String, CachedEntity> entities = new LinkedHashMap<>();
+        Map<String, Long> expiries = new HashMap<>();
+        long skipped = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ChecksummedReader reader = new ChecksummedReader(channel);
+            ByteBuffer header = reader.require(HEADER_SIZE);
+            int magic = header.getInt();
+            byte version = header.get();
+            header.getLong(); // Creation time, informational only
+            if (magic != MAGIC || version != VERSION) {
+                throw new IllegalArgumentException("Unsupported cache snapshot format");
+            }
+            long limit = maximumSize();
+            boolean weighted = isWeighted();
+            long used = 0;
+            while (true) {
+                int length = reader.require(Integer.BYTES).getInt();
+                if (length == END_OF_RECORDS) {
+                    break;
+                }
+                if (length < 0 || length > channel.size()) {
+                    throw new IllegalArgumentException("Invalid record length in cache snapshot: " + length);
+                }
+                ByteBuffer record = reader.require(length + Long.BYTES);
+                int end = record.position() + length;
+                CachedEntity entity = CachedEntityCodec.decode(record.slice(record.position(), length));
+                record.position(end);
+                long expiresAt = record.getLong();
+                long weight = weighted ? CachedEntityWeigher.estimate(entity) : 1;
+                if (expiresAt <= nowMillis || used + weight > limit) {
+                    skipped++;
+                } else {
+                    used += weight;
+                    if (entity.getTtlSeconds() != null) {
+                        // Its own TTL, not the default, set the expiry the entry had left
+                        entity.setExpiresAt(expiresAt);
+                    }
+                    entities.put(entity.getId(), entity);
+                    expiries.put(entity.getId(), expiresAt - nowMillis);
+                }
+            }
+            long count = reader.require(Long.BYTES).getLong();
+            reader.verifyChecksum();
+            if (count != entities.size() + skipped) {
+                throw new IllegalArgumentException("Cache snapshot holds " + (entities.size() + skipped)
+                        + " records, expected " + count);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Discarding unreadable cache snapshot {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return 0;
+        }
+        restore(entities, expiries);
+        deleteQuietly(file);
+        loadedCount = entities.size();
+        skippedCount = skipped;
+        loadTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Loaded {} cache entries from snapshot {} in {} ms, skipped {}",
+                loadedCount, file, loadTimeMs, skipped);
+        return loadedCount;
+    }
+
+    /**
+     * Puts the loaded entities with the lifetime they had left when saved if the cache
+     * expires entries individually, and with a fresh lifetime otherwise
+     */
+    private void restore(Map<String, CachedEntity> entities, Map<String, Long> remainingMillis) {
+        Optional<Policy.VarExpiration<String, CachedEntity>> varExpiration = cache.policy().expireVariably();
+        if (varExpiration.isEmpty()) {
+            cache.putAll(entities);
+            return;
+        }
+        entities.forEach((id, entity) ->
+                varExpiration.get().put(id, entity, remainingMillis.get(id), TimeUnit.MILLISECONDS));
+    }
+
+    private Map<String, CachedEntity> hottestFirst() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.hottest(Integer.MAX_VALUE))
+                .orElseGet(() -> Map.copyOf(cache.asMap()));
+    }
+
+    /**
+     * @return The maximum number of entries, or the maximum weight if the cache is weighted
+     */
+    private long maximumSize() {
+        return cache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(Long.MAX_VALUE);
+    }
+
+    private boolean isWeighted() {
+        return cache.policy().eviction().map(Policy.Eviction::isWeighted).orElse(false);
+    }
+
+    private long expiresAt(String key, long nowMillis) {
+        Optional<Policy.VarExpiration<String, CachedEntity>> varExpiration = cache.policy().expireVariably();
+        if (varExpiration.isPresent()) {
+            OptionalLong remaining = varExpiration.get().getExpiresAfter(key, TimeUnit.MILLISECONDS);
+            return remaining.isPresent() ? nowMillis + remaining.getAsLong() : nowMillis;
+        }
+        return cache.policy().expireAfterWrite()
+                .map(expiration -> {
+                    long ttl = expiration.getExpiresAfter(TimeUnit.MILLISECONDS);
+                    long age = expiration.ageOf(key, TimeUnit.MILLISECONDS).orElse(ttl);
+                    return nowMillis + ttl - age;
+                })
+                .orElse(Long.MAX_VALUE);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void registerEntriesGauge(MeterRegistry meterRegistry, String state,
+                                      ToDoubleFunction<CacheSnapshotter> value) {
+        Gauge.builder("cache.snapshot.entries", this, value)
+                .tag("state", state)
+                .description("Cache entries loaded from, skipped in or saved to the snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers writes to the channel and keeps a running checksum of everything written
+     */
+    private static final class ChecksummedWriter {
+
+        private final FileChannel channel;
+        private final CRC32C checksum = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private ChecksummedWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return The buffer, with room for at least the given number of bytes
+         */
+        private ByteBuffer reserve(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                drain();
+                if (buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+            }
+            return buffer;
+        }
+
+        private void finish() throws IOException {
+            drain();
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).flip();
+            writeFully(trailer);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    /**
+     * Reads the channel through a buffer, checksumming the bytes handed out
+     */
+    private static final class ChecksummedReader {
+
+        private final FileChannel channel;
+        private final CRC32C checksum = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private int checksummedUpTo; // Position in the buffer up to which bytes are checksummed
+
+        private ChecksummedReader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return The buffer, positioned at the next unread byte with at least the given
+         * number of bytes remaining
+         * @throws IOException if the file ends first
+         */
+        private ByteBuffer require(int length) throws IOException {
+            consume();
+            if (buffer.remaining() < length) {
+                ByteBuffer target = buffer.capacity() < length ? ByteBuffer.allocate(Math.max(length, BUFFER_SIZE)) : buffer;
+                if (target != buffer) {
+                    target.put(buffer);
+                } else {
+                    buffer.compact();
+                }
+                buffer = target;
+                while (buffer.position() < length) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Unexpected end of cache snapshot");
+                    }
+                }
+                buffer.flip();
+                checksummedUpTo = 0;
+            }
+            // Bytes handed out are checksummed on the next call, once the caller has read them
+            return buffer;
+        }
+
+        private void consume() {
+            int position = buffer.position();
+            if (position > checksummedUpTo) {
+                checksum.update(buffer.duplicate().position(checksummedUpTo).limit(position));
+                checksummedUpTo = position;
+            }
+        }
+
+        private void verifyChecksum() throws IOException {
+            consume();
+            int expected = require(Integer.BYTES).getInt();
+            if (expected != (int) checksum.getValue()) {
+                throw new IOException("Cache snapshot checksum mismatch");
+            }
+            if (buffer.hasRemaining() || channel.position() != channel.size()) {
+                throw new IOException("Unexpected data after cache snapshot checksum");
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.exercise.caching.service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+/**
+ * Preloads the most recently accessed entities from the database into the "cacheEntity"
+ * cache when the application starts, as an alternative or complement to the snapshot.
+ * All operations are no-ops unless cache.warmup.enabled is set.
+ * <p>
+ * Rows are streamed newest first with a JDBC fetch size and put into the cache one by
+ * one, on a background thread of a bounded pool so startup is not blocked. Until the
+ * load has finished, or failed, this health indicator reports OUT_OF_SERVICE; it is part
+ * of the readiness group, so no traffic is routed to the instance while it is cold.
+ * Entities already cached, for example from the snapshot, are left untouched. When the
+ * cache is bounded by weight, loading stops putting entities once their estimated size
+ * would exceed the weight left, so warming never evicts the hotter entries it loaded.
+ * <p>
+ * CachingService reports every ID it writes or removes while the load runs, before it
+ * updates the cache; a loaded entity whose ID was reported is taken out again, so a row
+ * read before the change cannot resurrect it. Clearing the cache stops the load.
+ */
+@Component
+public class CacheWarmer implements SmartLifecycle, HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final CachingRepository repository;
+    private final Cache<String, CachedEntity> cache; // null with the striped engine
+    private final boolean enabled;
+    private final int size;
+    private final int fetchSize;
+    private final ThreadPoolExecutor executor; // null when disabled
+
+    private final LongAdder loaded = new LongAdder();
+    private volatile boolean running;
+    private volatile boolean warm;
+    private volatile long loadTimeMs;
+    private volatile String failure;
+    // IDs written or removed since the load started; null once it has finished
+    private volatile Set<String> invalidated;
+    private volatile boolean cleared;
+
+    public CacheWarmer(CachingRepository repository,
+                       Optional<Cache<String, CachedEntity>> caffeineCache,
+                       @Value("${cache.warmup.enabled:false}") boolean enabled,
+                       @Value("${cache.warmup.size:1000}") int size,
+                       @Value("${cache.warmup.fetch-size:500}") int fetchSize) {
+        if (enabled && caffeineCache.isEmpty()) {
+            throw new IllegalStateException("cache.warmup requires cache.engine=caffeine");
+        }
+        this.repository = repository;
+        this.cache = caffeineCache.orElse(null);
+        this.enabled = enabled;
+        this.size = size;
+        this.fetchSize = fetchSize;
+        this.warm = !enabled;
+        this.invalidated = enabled ? ConcurrentHashMap.newKeySet() : null;
+        // A single ordered query is consumed by one thread; the pool only keeps it off the startup thread
+        this.executor = enabled
+                ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-warmup");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Starts after the snapshot has been loaded, so it only fills what the snapshot did not
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4095;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            executor.execute(this::warmUp);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void warmUp() {
+        Optional<Policy.Eviction<String, CachedEntity>> eviction = cache.policy().eviction();
+        boolean weighted = eviction.map(Policy.Eviction::isWeighted).orElse(false);
+        long limit = weighted ? size : Math.min(size, eviction.map(Policy.Eviction::getMaximum).orElse(Long.MAX_VALUE));
+        long[] weightLeft = {weighted ? eviction.get().getMaximum() - eviction.get().weightedSize().orElse(0) : 0};
+        logger.info("Warming up cache with up to {} most recently accessed entities", limit);
+        long start = System.nanoTime();
+        try {
+            repository.forEachMostRecentlyAccessed((int) limit, fetchSize, entity -> {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CacheWarmupInterruptedException();
+                }
+                if (weighted) {
+                    int weight = CachedEntityWeigher.estimate(entity);
+                    if (weight > weightLeft[0]) {
+                        return;
+                    }
+                    weightLeft[0] -= weight;
+                }
+                if (cache.asMap().putIfAbsent(entity.getId(), entity) != null) {
+                    return;
+                }
+                // Checked after the put, as the writer reports before it updates the cache
+                if (cleared || invalidated.contains(entity.getId())) {
+                    cache.asMap().remove(entity.getId(), entity);
+                    if (cleared) {
+                        throw new CacheWarmupInterruptedException();
+                    }
+                    return;
+                }
+                loaded.increment();
+            });
+            loadTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Cache warmed up with {} entities in {} ms", loaded.sum(), loadTimeMs);
+        } catch (CacheWarmupInterruptedException e) {
+            logger.info("Cache warmup {} after {} entities", cleared ? "stopped by a clear" : "interrupted", loaded.sum());
+        } catch (Exception e) {
+            // Serve from a cold cache rather than never becoming ready
+            failure = e.getMessage();
+            logger.error("Cache warmup failed after {} entities: {}", loaded.sum(), e.getMessage(), e);
+        } finally {
+            warm = true;
+            invalidated = null;
+        }
+    }
+
+    /**
+     * Records that an entity was written or removed, so a load in progress does not
+     * cache an older copy of it. Must be called before the cache is updated.
+     * @param id The ID of the entity
+     */
+    public void invalidate(String id) {
+        Set<String> ids = invalidated;
+        if (ids != null) {
+            ids.add(id);
+        }
+    }
+
+    /**
+     * Records that the cache is being cleared, which stops a load in progress. Must be
+     * called before the cache is cleared.
+     */
+    public void invalidateAll() {
+        if (invalidated != null) {
+            cleared = true;
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warm ? Health.up() : Health.outOfService();
+        if (enabled) {
+            builder.withDetail("loaded", loaded.sum());
+            if (warm) {
+                builder.withDetail("loadTimeMs", loadTimeMs);
+            }
+            if (failure != null) {
+                builder.withDetail("error", failure);
+            }
+        }
+        return builder.build();
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public long getLoadedCount() {
+        return loaded.sum();
+    }
+
+    private static final class CacheWarmupInterruptedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private CacheWarmupInterruptedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.exercise.caching.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads "cacheEntity" entries from the database when the cache runs in refresh mode.
+ * Caffeine calls it on misses, for bulk lookups, and in the background on the refresh
+ * executor to reload entries older than the refresh interval, while readers keep
+ * getting the old value.
+ */
+@Component
+public class CachedEntityCacheLoader implements CacheLoader<String, CachedEntity> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedEntityCacheLoader.class);
+
+    private final CachingRepository repository;
+    private final AccessTimeRecorder accessTimeRecorder;
+    private final WriteBehindWriter writeBehindWriter; // null in write-through mode
+    private final NegativeCache negativeCache;
+    private final OffHeapStore offHeapStore;
+    private final Counter refreshSuccessCounter;
+    private final Counter refreshFailureCounter;
+
+    public CachedEntityCacheLoader(CachingRepository repository, AccessTimeRecorder accessTimeRecorder,
+                                   Optional<WriteBehindWriter> writeBehindWriter, NegativeCache negativeCache,
+                                   OffHeapStore offHeapStore, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.accessTimeRecorder = accessTimeRecorder;
+        this.writeBehindWriter = writeBehindWriter.orElse(null);
+        this.negativeCache = negativeCache;
+        this.offHeapStore = offHeapStore;
+        this.refreshSuccessCounter = Counter.builder("cache.refresh")
+                .tag("result", "success")
+                .description("Background reloads of cache entries")
+                .register(meterRegistry);
+        this.refreshFailureCounter = Counter.builder("cache.refresh")
+                .tag("result", "failure")
+                .description("Background reloads of cache entries")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CachedEntity load(String id) {
+        // Taken before the pending write is checked, so an add queued after the check counts
+        long generation = negativeCache.generation(id);
+        CachedEntity pending = getPending(id);
+        if (pending != null) {
+            return pending;
+        }
+        CachedEntity demoted = offHeapStore.take(id);
+        if (demoted != null) {
+            accessTimeRecorder.record(id);
+            return demoted;
+        }
+        if (negativeCache.isKnownAbsent(id)) {
+            return null;
+        }
+        CachedEntity entity = repository.findById(id).orElse(null);
+        if (entity == null) {
+            negativeCache.markAbsent(id, generation);
+            return null;
+        }
+        entity.setCacheAccessedTime(LocalDateTime.now());
+        accessTimeRecorder.record(id);
+        return entity;
+    }
+
+    @Override
+    public Map<String, CachedEntity> loadAll(Set<? extends String> ids) {
+        logger.debug("Loading {} entities into cache", ids.size());
+        Map<String, CachedEntity> loaded = new HashMap<>();
+        Map<String, Long> generations = new HashMap<>();
+        ids.forEach(id -> generations.put(id, negativeCache.generation(id)));
+        List<String> misses = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CachedEntity cached = getPending(id);
+            if (cached == null) {
+                cached = offHeapStore.take(id);
+            }
+            if (cached != null) {
+                loaded.put(id, cached);
+            } else if (!negativeCache.isKnownAbsent(id)) {
+                misses.add(id);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (CachedEntity entity : repository.findAllById(misses)) {
+            entity.setCacheAccessedTime(now);
+            accessTimeRecorder.record(entity.getId());
+            loaded.put(entity.getId(), entity);
+        }
+        for (String id : misses) {
+            if (!loaded.containsKey(id)) {
+                negativeCache.markAbsent(id, generations.get(id));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public CachedEntity reload(String id, CachedEntity oldValue) {
+        try {
+            CachedEntity pending = getPending(id);
+            CachedEntity entity = pending != null ? pending : repository.findById(id).orElse(null);
+            refreshSuccessCounter.increment();
+            logger.debug("Refreshed entity with ID: {}", id);
+            return entity;
+        } catch (RuntimeException e) {
+            refreshFailureCounter.increment();
+            logger.warn("Failed to refresh entity with ID: {}, keeping cached value: {}", id, e.getMessage());
+            throw e;
+        }
+    }
+
+    private CachedEntity getPending(String id) {
+        return writeBehindWriter != null ? writeBehindWriter.getPending(id) : null;
+    }
+}
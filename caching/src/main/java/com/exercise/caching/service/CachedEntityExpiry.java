@@ -0,0 +1,63 @@
+package com.exercise.caching.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Expires each entry at its fixed expiry, set when it was stored with a TTL, so an
+ * entity promoted from the off-heap tier or loaded again keeps the lifetime it had
+ * left. Entries without one expire after their own ttlSeconds, or the default TTL when
+ * they have none, counted from when they were last written. Reads do not extend the
+ * lifetime. An entity promoted from the off-heap tier without a fixed expiry keeps the
+ * deadline it had when it was demoted, which each write records on the entity. Caffeine
+ * schedules variable expiration on its timer wheel, so expiring entries costs O(1)
+ * per entry instead of a scan.
+ */
+public class CachedEntityExpiry implements Expiry<String, CachedEntity> {
+
+    private final long defaultTtlNanos;
+
+    public CachedEntityExpiry(Duration defaultTtl) {
+        this.defaultTtlNanos = defaultTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String key, CachedEntity value, long currentTime) {
+        Long cacheExpiresAt = value.getCacheExpiresAt();
+        if (value.getExpiresAt() == null && cacheExpiresAt != null) {
+            return remainingNanos(cacheExpiresAt);
+        }
+        return stamp(value, ttlNanos(value));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, CachedEntity value, long currentTime, long currentDuration) {
+        return stamp(value, ttlNanos(value));
+    }
+
+    @Override
+    public long expireAfterRead(String key, CachedEntity value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private static long stamp(CachedEntity value, long ttlNanos) {
+        value.setCacheExpiresAt(System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+        return ttlNanos;
+    }
+
+    private static long remainingNanos(long expiresAt) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+    }
+
+    private long ttlNanos(CachedEntity value) {
+        Long expiresAt = value.getExpiresAt();
+        if (expiresAt != null) {
+            return remainingNanos(expiresAt);
+        }
+        Long ttlSeconds = value.getTtlSeconds();
+        return ttlSeconds != null && ttlSeconds > 0 ? TimeUnit.SECONDS.toNanos(ttlSeconds) : defaultTtlNanos;
+    }
+}
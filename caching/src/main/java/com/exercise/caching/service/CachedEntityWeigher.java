@@ -0,0 +1,70 @@
+package com.exercise.caching.service;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Estimates the heap retained by a cache entry in bytes, assuming a 64-bit JVM with
+ * compressed oops and compact strings: the entity with its id, data, access time, TTL
+ * and expiry objects and entity tag, or the compressed bytes in place of the data, plus
+ * a fixed allowance for Caffeine's node and hash table slot. The key is the entity's own
+ * id string and is not counted twice. Response bodies kept by PreSerializedResponses
+ * are bounded by their own cache and not counted here.
+ */
+public class CachedEntityWeigher implements Weigher<String, CachedEntity> {
+
+    // Object header plus seven references and an int
+    static final int ENTITY_BYTES = 48;
+    // The entity tag string, computed before the entity is cached: 22 Base64 characters
+    static final int ENTITY_TAG_BYTES = 64;
+    // LocalDateTime with its LocalDate and LocalTime
+    static final int DATE_TIME_BYTES = 72;
+    static final int BOXED_LONG_BYTES = 16;
+    // Bounded, expiring Caffeine node plus its hash table slot
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    @Override
+    public int weigh(String key, CachedEntity value) {
+        return estimate(value);
+    }
+
+    /**
+     * @return The estimated retained size of the entity as a cache entry, in bytes
+     */
+    public static int estimate(CachedEntity entity) {
+        long bytes = ENTRY_OVERHEAD_BYTES + ENTITY_BYTES + ENTITY_TAG_BYTES
+                + stringBytes(entity.getId())
+                + (entity.isCompressed() ? arrayBytes(entity.getDeflatedData().length) : stringBytes(entity.getData()))
+                + (entity.getCacheAccessedTime() != null ? DATE_TIME_BYTES : 0)
+                + (entity.getTtlSeconds() != null ? BOXED_LONG_BYTES : 0)
+                + (entity.getExpiresAt() != null ? BOXED_LONG_BYTES : 0);
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long contentBytes = isLatin1(value) ? value.length() : 2L * value.length();
+        return STRING_BYTES + arrayBytes(contentBytes);
+    }
+
+    private static long arrayBytes(long length) {
+        return align(ARRAY_HEADER_BYTES + length);
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -1,63 +1,129 @@
 package com.exercise.caching.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
-import org.springframework.validation.annotation.Validated;
 
+import com.exercise.caching.config.CacheConfig;
 import com.exercise.caching.exception.CachingException;
 import com.exercise.caching.exception.EntityNotFoundException;
 import com.exercise.caching.exception.ValidationException;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
 import com.exercise.caching.model.CachedEntity;
 import com.exercise.caching.repository.CachingRepository;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 
-import jakarta.validation.Valid;
-import jakarta.validation.constraints.NotBlank;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 
 @Service
-@CacheConfig(cacheNames = {"cacheEntity"})  
-@Validated
 public class CachingService {
 
 	    private static final Logger logger = LoggerFactory.getLogger(CachingService.class);
 	    private final CachingRepository repository;
+	    private final AccessTimeRecorder accessTimeRecorder;
+	    private final WriteBehindWriter writeBehindWriter; // null in write-through mode
+	    private final Cache entityCache;
+	    private final LoadingCache<String, CachedEntity> loadingCache; // null unless refresh mode is enabled
+	    private final NegativeCache negativeCache;
+	    private final OffHeapStore offHeapStore;
+	    private final DataCompressor dataCompressor;
+	    private final CacheWarmer cacheWarmer;
+	    // Programmatic transactions keep the service unproxied, so cache hits skip the interceptor chain
+	    private final TransactionOperations transactionOperations;
+	    // Database loads in progress, shared by concurrent misses for the same ID
+	    private final ConcurrentHashMap<String, CompletableFuture<CachedEntity>> loadsInFlight = new ConcurrentHashMap<>();
+	    private final Timer loadFoundTimer;
+	    private final Timer loadNotFoundTimer;
+	    private final Timer loadFailedTimer;
 
-	    public CachingService(CachingRepository repository) {
+	    public CachingService(CachingRepository repository, AccessTimeRecorder accessTimeRecorder,
+	                          Optional<WriteBehindWriter> writeBehindWriter, CacheManager cacheManager,
+	                          NegativeCache negativeCache, OffHeapStore offHeapStore,
+	                          TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+	                          DataCompressor dataCompressor, CacheWarmer cacheWarmer) {
 	        this.repository = repository;
+	        this.accessTimeRecorder = accessTimeRecorder;
+	        this.writeBehindWriter = writeBehindWriter.orElse(null);
+	        this.entityCache = cacheManager.getCache(CacheConfig.CACHE_NAME);
+	        this.loadingCache = nativeLoadingCache(entityCache);
+	        this.negativeCache = negativeCache;
+	        this.offHeapStore = offHeapStore;
+	        this.dataCompressor = dataCompressor;
+	        this.cacheWarmer = cacheWarmer;
+	        this.transactionOperations = transactionOperations;
+	        this.loadFoundTimer = loadTimer(meterRegistry, "found");
+	        this.loadNotFoundTimer = loadTimer(meterRegistry, "not_found");
+	        this.loadFailedTimer = loadTimer(meterRegistry, "error");
+	    }
+
+	    private static Timer loadTimer(MeterRegistry meterRegistry, String result) {
+	        return Timer.builder("cache.load")
+	                .description("Time to load an entity on a cache miss")
+	                .tag("cache", CacheConfig.CACHE_NAME)
+	                .tag("result", result)
+	                .publishPercentileHistogram()
+	                .register(meterRegistry);
 	    }
 
 	    /**
-	     * Adds an entity to the cache and database
+	     * Adds an entity to the cache and database. In write-behind mode the database
+	     * write is queued and performed asynchronously. Data above the compression
+	     * threshold is compressed first, and the entity tag is computed before the entity
+	     * is cached.
 	     * @param entity The entity to be added
 	     * @return The added entity
 	     * @throws CacheException if there's an error during the operation
 	     * @throws IllegalArgumentException if the entity is invalid
 	     */
-	    @CachePut(key = "#entity.id")
-	    @Transactional
-	    public CachedEntity add(@Valid CachedEntity entity) {
+	    public CachedEntity add(CachedEntity entity) {
 	        try {
 	            validateEntity(entity);
 	            logger.debug("Adding entity to cache and database: {}", entity);
 
 	            entity.setCacheAccessedTime(LocalDateTime.now());
-	            repository.save(entity);
+	            entity.startTtl(System.currentTimeMillis());
+	            dataCompressor.compress(entity);
+	            entity.getEntityTag();  // Hashed on write, so cache hits reuse it
+	            if (writeBehindWriter != null) {
+	                writeBehindWriter.enqueue(entity);
+	            } else {
+	                transactionOperations.executeWithoutResult(status -> repository.save(entity));
+	            }
+	            loadsInFlight.remove(entity.getId());
+	            cacheWarmer.invalidate(entity.getId());
+	            entityCache.put(entity.getId(), entity);
+	            offHeapStore.invalidate(entity.getId());
+	            negativeCache.invalidate(entity.getId());
 
 	            logger.info("Successfully added entity with ID: {}", entity.getId());
 	            return entity;
 	        } catch (IllegalArgumentException e) {
 	            logger.error("Invalid entity provided: {}", e.getMessage());
 	            throw new ValidationException("Invalid input");
+	        } catch (CachingException e) {
+	            throw e;
 	        } catch (DataAccessException e) {
 	            logger.error("Database error while adding entity: {}", e.getMessage());
 	            throw new CachingException("Failed to add entity to database", e);
@@ -68,30 +134,152 @@ public class CachingService {
 	    }
 
 	    /**
-	     * Retrieves an entity by ID from cache or database
+	     * Retrieves an entity by ID from cache or database. A cache hit only records the
+	     * access time and allocates nothing; concurrent misses for the same ID share a
+	     * single database load, which runs without holding any monitor so that waiting
+	     * virtual threads unmount instead of pinning their carriers.
 	     * @param id The ID of the entity
 	     * @return The retrieved entity
 	     * @throws EntityNotFoundException if the entity is not found
+	     * @throws ValidationException if the ID is blank
 	     * @throws CacheException if there's an error during the operation
 	     */
-	    @Cacheable(key = "#id")
-	    @Transactional(readOnly = true)
-	    public CachedEntity get(@NotBlank String id) {
+	    public CachedEntity get(String id) {
+	        if (!StringUtils.hasText(id)) {
+	            throw new ValidationException("Invalid input");
+	        }
+	        CachedEntity cached = entityCache.get(id, CachedEntity.class);
+	        if (cached != null) {
+	            accessTimeRecorder.record(id);  // Persisted asynchronously in batches
+	            return cached;
+	        }
+	        if (loadingCache != null) {
+	            // The lookup above has already gone through the cache loader
+	            throw new EntityNotFoundException("Entity not found: " + id);
+	        }
+	        CompletableFuture<CachedEntity> loading = new CompletableFuture<>();
+	        CompletableFuture<CachedEntity> existing = loadsInFlight.putIfAbsent(id, loading);
+	        if (existing != null) {
+	            return await(existing);
+	        }
 	        try {
-	            validateId(id);
-	            logger.debug("Attempting to retrieve entity with ID: {}", id);
-
-	            return repository.findById(id)
-	                .map(entity -> {
-	                    entity.setCacheAccessedTime(LocalDateTime.now());
-	                    repository.save(entity);  // Update last accessed time
-	                    logger.info("Successfully retrieved entity with ID: {}", id);
-	                    return entity;
-	                })
-	                .orElseThrow(() -> {
-	                    logger.warn("Entity not found with ID: {}", id);
-	                    return new EntityNotFoundException("Entity not found: " + id);
-	                });
+	            // Another load may have completed between the lookup above and registering this one
+	            CachedEntity entity = entityCache.get(id, CachedEntity.class);
+	            if (entity == null) {
+	                entity = timedLoad(id);
+	                cacheLoaded(id, loading, entity);
+	            }
+	            loadsInFlight.remove(id, loading);
+	            loading.complete(entity);
+	            return entity;
+	        } catch (RuntimeException e) {
+	            loadsInFlight.remove(id, loading);
+	            loading.completeExceptionally(e);
+	            throw e;
+	        }
+	    }
+
+	    /**
+	     * Returns an entity only if the first cache tier holds it, never blocking on a load
+	     * @param id The ID of the entity
+	     * @return The cached entity, or null on a miss
+	     */
+	    public CachedEntity getIfCached(String id) {
+	        if (!StringUtils.hasText(id)) {
+	            return null;
+	        }
+	        CachedEntity cached = loadingCache != null
+	            ? loadingCache.getIfPresent(id)  // A lookup through the Spring cache would load
+	            : entityCache.get(id, CachedEntity.class);
+	        if (cached != null) {
+	            accessTimeRecorder.record(id);
+	        }
+	        return cached;
+	    }
+
+	    /**
+	     * Caches a loaded entity only while its load is still registered, so a concurrent
+	     * add or remove, which drops the registration, wins over the load
+	     */
+	    private void cacheLoaded(String id, CompletableFuture<CachedEntity> loading, CachedEntity loaded) {
+	        loadsInFlight.computeIfPresent(id, (key, current) -> {
+	            if (current != loading) {
+	                return current;
+	            }
+	            entityCache.put(key, loaded);
+	            return null;
+	        });
+	    }
+
+	    private static CachedEntity await(CompletableFuture<CachedEntity> loading) {
+	        try {
+	            return loading.join();
+	        } catch (CompletionException e) {
+	            if (e.getCause() instanceof RuntimeException cause) {
+	                throw cause;
+	            }
+	            throw e;
+	        }
+	    }
+
+	    private CachedEntity timedLoad(String id) {
+	        long start = System.nanoTime();
+	        Timer timer = loadFailedTimer;
+	        try {
+	            CachedEntity entity = load(id);
+	            timer = loadFoundTimer;
+	            return entity;
+	        } catch (EntityNotFoundException e) {
+	            timer = loadNotFoundTimer;
+	            throw e;
+	        } finally {
+	            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	        }
+	    }
+
+	    /**
+	     * Loads an entity on a cache miss: a pending write-behind value first, then the
+	     * off-heap tier, then the database unless the ID is known to be absent
+	     * @param id The ID of the entity
+	     * @return The loaded entity, never null
+	     * @throws EntityNotFoundException if the entity is not found
+	     * @throws CacheException if there's an error during the operation
+	     */
+	    private CachedEntity load(String id) {
+	        try {
+	            if (logger.isDebugEnabled()) {
+	                logger.debug("Cache miss, loading entity with ID: {}", id);
+	            }
+
+	            // Taken before the pending write is checked, so an add queued after the check counts
+	            long generation = negativeCache.generation(id);
+	            CachedEntity pending = writeBehindWriter != null ? writeBehindWriter.getPending(id) : null;
+	            if (pending != null) {
+	                logger.debug("Entity with ID {} is waiting to be written, serving pending value", id);
+	                return pending;
+	            }
+	            CachedEntity demoted = offHeapStore.take(id);
+	            if (demoted != null) {
+	                logger.debug("Promoting entity with ID {} from the off-heap cache", id);
+	                accessTimeRecorder.record(id);
+	                return demoted;
+	            }
+	            if (negativeCache.isKnownAbsent(id)) {
+	                logger.debug("Entity with ID {} is known to be absent", id);
+	                throw new EntityNotFoundException("Entity not found: " + id);
+	            }
+
+	            CachedEntity entity = repository.findById(id).orElse(null);
+	            if (entity == null) {
+	                logger.warn("Entity not found with ID: {}", id);
+	                negativeCache.markAbsent(id, generation);
+	                throw new EntityNotFoundException("Entity not found: " + id);
+	            }
+	            entity.setCacheAccessedTime(LocalDateTime.now());
+	            entity.getEntityTag();
+	            accessTimeRecorder.record(id);
+	            logger.info("Successfully retrieved entity with ID: {}", id);
+	            return entity;
 	        } catch (EntityNotFoundException e) {
 	            throw e;
 	        } catch (DataAccessException e) {
@@ -109,20 +297,27 @@ public class CachingService {
 	     * @throws EntityNotFoundException if the entity is not found
 	     * @throws CacheException if there's an error during the operation
 	     */
-	    @CacheEvict(key = "#id")
-	    @Transactional
-	    public void remove(@NotBlank String id) {
+	    public void remove(String id) {
 	        try {
 	            validateId(id);
 	            logger.debug("Attempting to remove entity with ID: {}", id);
 
-	            if (!repository.existsById(id)) {
-	                logger.warn("Entity not found with ID: {}", id);
-	                throw new EntityNotFoundException("Entity not found: " + id);
-	            }
-
-	            repository.deleteById(id);
+	            boolean pendingCancelled = writeBehindWriter != null && writeBehindWriter.cancel(id);
+	            transactionOperations.executeWithoutResult(status -> {
+	                if (!repository.existsById(id) && !pendingCancelled) {
+	                    logger.warn("Entity not found with ID: {}", id);
+	                    throw new EntityNotFoundException("Entity not found: " + id);
+	                }
+	                repository.deleteById(id);
+	            });
+	            loadsInFlight.remove(id);
+	            cacheWarmer.invalidate(id);
+	            entityCache.evict(id);
+	            offHeapStore.invalidate(id);
 	            logger.info("Successfully removed entity with ID: {}", id);
+	        } catch (IllegalArgumentException e) {
+	            logger.error("Invalid ID provided: {}", e.getMessage());
+	            throw new ValidationException("Invalid input");
 	        } catch (EntityNotFoundException e) {
 	            throw e;
 	        } catch (DataAccessException e) {
@@ -135,15 +330,22 @@ public class CachingService {
 	    }
 
 	    /**
-	     * Removes all entities from cache and database
+	     * Removes all entities from cache and database. Rows are deleted in chunks that
+	     * commit one by one, so concurrent requests are not blocked behind a single
+	     * table-wide delete; if a chunk fails, the rows deleted before it stay deleted.
 	     * @throws CacheException if there's an error during the operation
 	     */
-	    @CacheEvict(allEntries = true)
-	    @Transactional
 	    public void removeAll() {
 	        try {
 	            logger.debug("Attempting to remove all entities");
+	            if (writeBehindWriter != null) {
+	                writeBehindWriter.cancelAll();
+	            }
 	            repository.deleteAll();
+	            loadsInFlight.clear();
+	            cacheWarmer.invalidateAll();
+	            entityCache.clear();
+	            offHeapStore.invalidateAll();
 	            logger.info("Successfully removed all entities");
 	        } catch (DataAccessException e) {
 	            logger.error("Database error while removing all entities: {}", e.getMessage());
@@ -158,10 +360,14 @@ public class CachingService {
 	     * Clears all entities from cache only
 	     * @throws CacheException if there's an error during the operation
 	     */
-	    @CacheEvict(allEntries = true)
 	    public void clear() {
 	        try {
 	            logger.debug("Clearing cache");
+	            loadsInFlight.clear();
+	            cacheWarmer.invalidateAll();
+	            entityCache.clear();
+	            offHeapStore.invalidateAll();
+	            negativeCache.invalidateAll();
 	            logger.info("Successfully cleared cache");
 	        } catch (Exception e) {
 	            logger.error("Unexpected error while clearing cache: {}", e.getMessage());
@@ -169,6 +375,309 @@ public class CachingService {
 	        }
 	    }
 
+	    /**
+	     * Drops entities whose rows were deleted outside this service, for example by the
+	     * TtlSweeper, from every cache tier without touching the database
+	     * @param ids The IDs of the deleted entities
+	     */
+	    public void evict(List<String> ids) {
+	        for (String id : ids) {
+	            loadsInFlight.remove(id);
+	            cacheWarmer.invalidate(id);
+	            entityCache.evict(id);
+	            offHeapStore.invalidate(id);
+	        }
+	    }
+
+	    /**
+	     * Retrieves several entities, resolving cache hits first and loading all misses
+	     * from the database with a single query. Misses are registered as loads like those
+	     * of get, so they are cached only if no add or remove lands meanwhile, and misses
+	     * already being loaded wait for that load instead of querying again.
+	     * @param ids The IDs of the entities
+	     * @return One result per distinct ID, in request order
+	     * @throws CacheException if there's an error during the operation
+	     */
+	    public List<BatchResult> getBatch(List<String> ids) {
+	        try {
+	            logger.debug("Attempting to retrieve {} entities", ids.size());
+	            Map<String, BatchResult> results = new LinkedHashMap<>();
+	            List<String> lookups = new ArrayList<>();
+	            for (String id : ids) {
+	                if (results.containsKey(id)) {
+	                    continue;
+	                }
+	                if (!StringUtils.hasText(id)) {
+	                    results.put(id, BatchResult.failed(id, BatchStatus.INVALID, "ID cannot be null or empty"));
+	                    continue;
+	                }
+	                results.put(id, null);
+	                lookups.add(id);
+	            }
+
+	            if (loadingCache != null) {
+	                // Returns the hits and bulk loads all misses through the cache loader's IN-list query
+	                loadingCache.getAll(lookups).forEach((id, entity) -> results.put(id, BatchResult.of(entity, BatchStatus.FOUND)));
+	            } else {
+	                loadBatch(lookups, results);
+	            }
+	            for (String id : lookups) {
+	                results.putIfAbsent(id, BatchResult.of(id, BatchStatus.NOT_FOUND));
+	            }
+
+	            logger.info("Retrieved batch of {} entities", results.size());
+	            return new ArrayList<>(results.values());
+	        } catch (DataAccessException e) {
+	            logger.error("Database error while retrieving entities: {}", e.getMessage());
+	            throw new CachingException("Failed to retrieve entities from database", e);
+	        } catch (CachingException e) {
+	            throw e;
+	        } catch (Exception e) {
+	            logger.error("Unexpected error while retrieving entities: {}", e.getMessage());
+	            throw new CachingException("Failed to retrieve entities", e);
+	        }
+	    }
+
+	    private void loadBatch(List<String> lookups, Map<String, BatchResult> results) {
+	        Map<String, CompletableFuture<CachedEntity>> registered = new HashMap<>();
+	        Map<String, CompletableFuture<CachedEntity>> awaited = new LinkedHashMap<>();
+	        Map<String, Long> generations = new HashMap<>();
+	        lookups.forEach(id -> generations.put(id, negativeCache.generation(id)));
+	        try {
+	            List<String> misses = new ArrayList<>();
+	            for (String id : lookups) {
+	                CachedEntity cached = entityCache.get(id, CachedEntity.class);
+	                if (cached == null && writeBehindWriter != null) {
+	                    cached = writeBehindWriter.getPending(id);
+	                }
+	                if (cached != null) {
+	                    results.put(id, BatchResult.of(cached, BatchStatus.FOUND));
+	                    continue;
+	                }
+	                CompletableFuture<CachedEntity> loading = new CompletableFuture<>();
+	                CompletableFuture<CachedEntity> existing = loadsInFlight.putIfAbsent(id, loading);
+	                if (existing != null) {
+	                    awaited.put(id, existing);
+	                    continue;
+	                }
+	                registered.put(id, loading);
+	                // Another load may have completed between the lookup above and registering this one
+	                cached = entityCache.get(id, CachedEntity.class);
+	                if (cached == null) {
+	                    cached = offHeapStore.take(id);
+	                    if (cached != null) {
+	                        accessTimeRecorder.record(id);
+	                        cacheLoaded(id, loading, cached);
+	                    }
+	                }
+	                if (cached != null) {
+	                    results.put(id, BatchResult.of(cached, BatchStatus.FOUND));
+	                } else if (!negativeCache.isKnownAbsent(id)) {
+	                    misses.add(id);
+	                }
+	            }
+	            LocalDateTime now = LocalDateTime.now();
+	            for (CachedEntity entity : repository.findAllById(misses)) {
+	                entity.setCacheAccessedTime(now);
+	                entity.getEntityTag();
+	                accessTimeRecorder.record(entity.getId());
+	                cacheLoaded(entity.getId(), registered.get(entity.getId()), entity);
+	                results.put(entity.getId(), BatchResult.of(entity, BatchStatus.FOUND));
+	            }
+	            for (String id : misses) {
+	                if (results.get(id) == null) {
+	                    negativeCache.markAbsent(id, generations.get(id));
+	                }
+	            }
+	            // Settled before waiting, so two batches waiting on each other's loads cannot deadlock
+	            complete(registered, results, null);
+	            awaited.forEach((id, loading) -> {
+	                try {
+	                    results.put(id, BatchResult.of(await(loading), BatchStatus.FOUND));
+	                } catch (EntityNotFoundException e) {
+	                    results.put(id, BatchResult.of(id, BatchStatus.NOT_FOUND));
+	                }
+	            });
+	        } catch (RuntimeException e) {
+	            complete(registered, results, e instanceof CachingException ? e
+	                    : new CachingException("Failed to retrieve entities from database", e));
+	            throw e;
+	        }
+	    }
+
+	    // Ends the batch's registered loads, handing concurrent get calls waiting on them the result
+	    private void complete(Map<String, CompletableFuture<CachedEntity>> registered,
+	                          Map<String, BatchResult> results, RuntimeException failure) {
+	        registered.forEach((id, loading) -> {
+	            loadsInFlight.remove(id, loading);
+	            BatchResult result = results.get(id);
+	            if (failure != null) {
+	                loading.completeExceptionally(failure);
+	            } else if (result != null) {
+	                loading.complete(result.getEntity());
+	            } else {
+	                loading.completeExceptionally(new EntityNotFoundException("Entity not found: " + id));
+	            }
+	        });
+	        registered.clear();
+	    }
+
+	    /**
+	     * Adds several entities to the cache and persists them with one batch update,
+	     * or queues them in write-behind mode
+	     * Stored entities are cached only once the database transaction has committed.
+	     * @param entities The entities to be added; the last one wins for duplicate IDs
+	     * @return One result per distinct ID, in request order, and one per entity without an ID
+	     * @throws CacheException if there's an error during the operation
+	     */
+	    public List<BatchResult> addBatch(List<CachedEntity> entities) {
+	        try {
+	            logger.debug("Attempting to add {} entities", entities.size());
+	            // Keyed by ID, or by position in the request for entities without one
+	            Map<Object, BatchResult> results = new LinkedHashMap<>();
+	            Map<String, CachedEntity> valid = new LinkedHashMap<>();
+	            LocalDateTime now = LocalDateTime.now();
+	            long nowMillis = System.currentTimeMillis();
+	            for (int i = 0; i < entities.size(); i++) {
+	                CachedEntity entity = entities.get(i);
+	                if (entity == null || !StringUtils.hasText(entity.getId())) {
+	                    String id = entity != null ? entity.getId() : null;
+	                    results.put(i, BatchResult.failed(id, BatchStatus.INVALID, "Entity ID cannot be null or empty"));
+	                    continue;
+	                }
+	                if (!hasValidTtl(entity)) {
+	                    valid.remove(entity.getId());
+	                    results.put(entity.getId(), BatchResult.failed(entity.getId(), BatchStatus.INVALID, "TTL must be positive"));
+	                    continue;
+	                }
+	                entity.setCacheAccessedTime(now);
+	                entity.startTtl(nowMillis);
+	                dataCompressor.compress(entity);
+	                entity.getEntityTag();
+	                valid.put(entity.getId(), entity);
+	                results.put(entity.getId(), null);
+	            }
+
+	            Map<String, BatchResult> stored = new HashMap<>();
+	            if (writeBehindWriter != null) {
+	                for (CachedEntity entity : valid.values()) {
+	                    try {
+	                        writeBehindWriter.enqueue(entity);
+	                        stored.put(entity.getId(), BatchResult.of(entity, BatchStatus.STORED));
+	                    } catch (CachingException e) {
+	                        stored.put(entity.getId(), BatchResult.failed(entity.getId(), BatchStatus.ERROR, e.getMessage()));
+	                    }
+	                }
+	                cacheStored(stored.values());
+	            } else {
+	                valid.values().forEach(entity -> stored.put(entity.getId(), BatchResult.of(entity, BatchStatus.STORED)));
+	                transactionOperations.executeWithoutResult(status -> {
+	                    repository.saveAll(new ArrayList<>(valid.values()));
+	                    afterCommit(() -> cacheStored(stored.values()));
+	                });
+	            }
+
+	            List<BatchResult> ordered = new ArrayList<>(results.size());
+	            results.forEach((key, result) -> ordered.add(result != null ? result : stored.get(key)));
+	            logger.info("Added {} of {} entities", valid.size(), entities.size());
+	            return ordered;
+	        } catch (DataAccessException e) {
+	            logger.error("Database error while adding entities: {}", e.getMessage());
+	            throw new CachingException("Failed to add entities to database", e);
+	        } catch (CachingException e) {
+	            throw e;
+	        } catch (Exception e) {
+	            logger.error("Unexpected error while adding entities: {}", e.getMessage());
+	            throw new CachingException("Failed to add entities", e);
+	        }
+	    }
+
+	    private void cacheStored(Iterable<BatchResult> results) {
+	        for (BatchResult result : results) {
+	            if (result.getStatus() == BatchStatus.STORED) {
+	                loadsInFlight.remove(result.getId());
+	                cacheWarmer.invalidate(result.getId());
+	                entityCache.put(result.getId(), result.getEntity());
+	                offHeapStore.invalidate(result.getId());
+	                negativeCache.invalidate(result.getId());
+	            }
+	        }
+	    }
+
+	    /**
+	     * Runs the action once the current transaction has committed, or at once when
+	     * there is none, so a rollback never leaves uncommitted entities in the cache
+	     */
+	    private static void afterCommit(Runnable action) {
+	        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+	            action.run();
+	            return;
+	        }
+	        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+	            @Override
+	            public void afterCommit() {
+	                action.run();
+	            }
+	        });
+	    }
+
+	    /**
+	     * Removes several entities from cache and database with one batch update
+	     * @param ids The IDs of the entities to remove
+	     * @return One result per distinct ID, in request order
+	     * @throws CacheException if there's an error during the operation
+	     */
+	    public List<BatchResult> removeBatch(List<String> ids) {
+	        try {
+	            logger.debug("Attempting to remove {} entities", ids.size());
+	            Map<String, BatchResult> results = new LinkedHashMap<>();
+	            List<String> valid = new ArrayList<>();
+	            for (String id : ids) {
+	                if (results.containsKey(id)) {
+	                    continue;
+	                }
+	                if (!StringUtils.hasText(id)) {
+	                    results.put(id, BatchResult.failed(id, BatchStatus.INVALID, "ID cannot be null or empty"));
+	                } else {
+	                    results.put(id, null);
+	                    valid.add(id);
+	                }
+	            }
+
+	            List<Boolean> pendingCancelled = new ArrayList<>(valid.size());
+	            for (String id : valid) {
+	                pendingCancelled.add(writeBehindWriter != null && writeBehindWriter.cancel(id));
+	            }
+	            int[] counts = transactionOperations.execute(status -> repository.deleteAllById(valid));
+	            for (int i = 0; i < valid.size(); i++) {
+	                String id = valid.get(i);
+	                loadsInFlight.remove(id);
+	                cacheWarmer.invalidate(id);
+	                entityCache.evict(id);
+	                offHeapStore.invalidate(id);
+	                boolean deleted = counts[i] > 0 || pendingCancelled.get(i);
+	                results.put(id, BatchResult.of(id, deleted ? BatchStatus.DELETED : BatchStatus.NOT_FOUND));
+	            }
+	            logger.info("Removed batch of {} entities", valid.size());
+	            return new ArrayList<>(results.values());
+	        } catch (DataAccessException e) {
+	            logger.error("Database error while removing entities: {}", e.getMessage());
+	            throw new CachingException("Failed to remove entities from database", e);
+	        } catch (CachingException e) {
+	            throw e;
+	        } catch (Exception e) {
+	            logger.error("Unexpected error while removing entities: {}", e.getMessage());
+	            throw new CachingException("Failed to remove entities", e);
+	        }
+	    }
+
+	    @SuppressWarnings("unchecked")
+	    private static LoadingCache<String, CachedEntity> nativeLoadingCache(Cache cache) {
+	        return cache != null && cache.getNativeCache() instanceof LoadingCache<?, ?> loadingCache
+	            ? (LoadingCache<String, CachedEntity>) loadingCache
+	            : null;
+	    }
+
 	    /**
 	     * Validates an entity
 	     * @param entity The entity to validate
@@ -181,6 +690,13 @@ public class CachingService {
 	        if (!StringUtils.hasText(entity.getId())) {
 	            throw new IllegalArgumentException("Entity ID cannot be null or empty");
 	        }
+	        if (!hasValidTtl(entity)) {
+	            throw new IllegalArgumentException("TTL must be positive");
+	        }
+	    }
+
+	    private static boolean hasValidTtl(CachedEntity entity) {
+	        return entity.getTtlSeconds() == null || entity.getTtlSeconds() > 0;
 	    }
 
 	    /**
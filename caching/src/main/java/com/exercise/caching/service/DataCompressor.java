@@ -0,0 +1,117 @@
+package com.exercise.caching.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.DataDeflater;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Compresses entity data of at least cache.compression.threshold-bytes with Deflate
+ * when the entity is added, before it is cached or persisted, so it is held compressed
+ * in every cache tier and in the database and only inflated when serialized to a
+ * client. Data that does not shrink is kept as text. Does nothing unless
+ * cache.compression.enabled is set.
+ * <p>
+ * Publishes the compression ratio of each compressed entity, the bytes before and
+ * after compression, and the time spent deflating and inflating for {@link #inflated}.
+ */
+@Component
+public class DataCompressor {
+
+    private final boolean enabled;
+    private final int thresholdBytes;
+    private final int level;
+    private final DistributionSummary ratio;
+    private final Counter originalBytes;
+    private final Counter compressedBytes;
+    private final Timer deflateTimer;
+    private final Timer inflateTimer;
+
+    public DataCompressor(MeterRegistry meterRegistry,
+                          @Value("${cache.compression.enabled:false}") boolean enabled,
+                          @Value("${cache.compression.threshold-bytes:1024}") int thresholdBytes,
+                          @Value("${cache.compression.level:1}") int level) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("cache.compression.level must be between 0 and 9: " + level);
+        }
+        this.enabled = enabled;
+        this.thresholdBytes = thresholdBytes;
+        this.level = level;
+        this.ratio = DistributionSummary.builder("cache.compression.ratio")
+                .description("Original size divided by compressed size, per compressed entity")
+                .register(meterRegistry);
+        this.originalBytes = compressionBytes(meterRegistry, "original");
+        this.compressedBytes = compressionBytes(meterRegistry, "compressed");
+        this.deflateTimer = compressionTimer(meterRegistry, "deflate");
+        this.inflateTimer = compressionTimer(meterRegistry, "inflate");
+    }
+
+    private static Counter compressionBytes(MeterRegistry meterRegistry, String state) {
+        return Counter.builder("cache.compression.bytes")
+                .description("Bytes of compressed entity data before and after compression")
+                .tag("state", state)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Timer compressionTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("cache.compression.time")
+                .description("Time spent compressing or inflating entity data")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the entity's data with its compressed form if it is large enough and shrinks
+     * @return true if the data is now held compressed
+     */
+    public boolean compress(CachedEntity entity) {
+        if (!enabled || entity.isCompressed()) {
+            return entity.isCompressed();
+        }
+        String data = entity.getData();
+        // Characters are a lower bound on UTF-8 bytes, so this skips only data below the threshold
+        if (data == null || data.length() < thresholdBytes) {
+            return false;
+        }
+        long start = System.nanoTime();
+        byte[] original = data.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = DataDeflater.deflate(original, level);
+        deflateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (deflated.length >= original.length) {
+            return false;
+        }
+        entity.setDeflatedData(deflated);
+        ratio.record((double) original.length / deflated.length);
+        originalBytes.increment(original.length);
+        compressedBytes.increment(deflated.length);
+        return true;
+    }
+
+    /**
+     * Inflates the data once for a client, leaving the cached entity compressed
+     * @return The entity itself if its data is held as text, otherwise a copy holding it as text
+     */
+    public CachedEntity inflated(CachedEntity entity) {
+        if (!entity.isCompressed()) {
+            return entity;
+        }
+        long start = System.nanoTime();
+        String data = DataDeflater.inflate(entity.getDeflatedData());
+        inflateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        CachedEntity copy = new CachedEntity(entity.getId(), data, entity.getCacheAccessedTime());
+        copy.setTtlSeconds(entity.getTtlSeconds());
+        copy.setExpiresAt(entity.getExpiresAt());
+        return copy;
+    }
+}
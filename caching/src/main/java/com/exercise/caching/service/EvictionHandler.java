@@ -1,5 +1,7 @@
 package com.exercise.caching.service;
 
+import java.util.Optional;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -14,15 +16,28 @@ public class EvictionHandler {
     
 	private static final Logger logger = LoggerFactory.getLogger(EvictionHandler.class);
     private final CachingRepository repository;
+    private final WriteBehindWriter writeBehindWriter; // null in write-through mode
 
-    public EvictionHandler(CachingRepository repository) {
+    public EvictionHandler(CachingRepository repository, Optional<WriteBehindWriter> writeBehindWriter) {
         this.repository = repository;
+        this.writeBehindWriter = writeBehindWriter.orElse(null);
     }
 
     public void handleEviction(CachedEntity entity) {
         try {
             if (entity != null) {
+                // Saving it would store the expired entity again
+                if (entity.isExpired(System.currentTimeMillis())) {
+                    logger.debug("Not persisting expired entity: {}", entity.getId());
+                    return;
+                }
             	logger.info("Handling eviction for entity ID: {}", entity.getId());
+                // In write-behind mode hand the entity to the writer instead of blocking the
+                // cache's listener thread, falling back to a direct save when its queue is full
+                if (writeBehindWriter != null && writeBehindWriter.offer(entity)) {
+                    logger.debug("Queued evicted entity for write-behind: {}", entity.getId());
+                    return;
+                }
                 repository.save(entity);
                 logger.debug("Successfully persisted evicted entity to database: {}", entity);
             }
@@ -0,0 +1,112 @@
+package com.exercise.caching.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Remembers IDs recently found to be absent from the database, so repeated lookups of
+ * a missing ID do not query the database each time. Entries are bounded in number and
+ * expire after a short TTL; adding an entity invalidates its entry. All operations are
+ * no-ops unless cache.negative.enabled is set.
+ * <p>
+ * A load takes the ID's write generation before querying and marks the ID absent with
+ * it, so an add committed after the query, whose invalidation bumps the generation,
+ * is never shadowed by the load's stale result. Generations are kept per stripe of IDs.
+ */
+@Component
+public class NegativeCache {
+
+    public static final String CACHE_NAME = "cacheEntityNegative";
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeCache.class);
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final Cache<String, Boolean> absentIds; // null when disabled
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public NegativeCache(MeterRegistry meterRegistry,
+                         @Value("${cache.negative.enabled:false}") boolean enabled,
+                         @Value("${cache.negative.max-size:1000}") int maxSize,
+                         @Value("${cache.negative.ttl-seconds:30}") int ttlSeconds) {
+        if (!enabled) {
+            this.absentIds = null;
+            return;
+        }
+        logger.info("Initializing negative cache with max size: {} and TTL: {} seconds", maxSize, ttlSeconds);
+        this.absentIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, absentIds, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return absentIds != null;
+    }
+
+    /**
+     * @param id The ID of the entity
+     * @return true if the entity was recently found to be absent
+     */
+    public boolean isKnownAbsent(String id) {
+        return absentIds != null && absentIds.getIfPresent(id) != null;
+    }
+
+    /**
+     * @return The ID's write generation, to be taken before querying the database for it
+     */
+    public long generation(String id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Records the ID as absent unless it was invalidated since the generation was taken
+     * @param generation The ID's generation from before the query that did not find it
+     */
+    public void markAbsent(String id, long generation) {
+        if (absentIds == null || generations.get(stripe(id)) != generation) {
+            return;
+        }
+        absentIds.put(id, Boolean.TRUE);
+        // An invalidation between the check and the put may have run before the put
+        if (generations.get(stripe(id)) != generation) {
+            absentIds.invalidate(id);
+        }
+    }
+
+    /**
+     * Forgets the ID, called once an entity with it has been stored
+     */
+    public void invalidate(String id) {
+        if (absentIds != null) {
+            generations.incrementAndGet(stripe(id));
+            absentIds.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        if (absentIds != null) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            absentIds.invalidateAll();
+        }
+    }
+
+    private static int stripe(String id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -0,0 +1,381 @@
+package com.exercise.caching.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Second cache tier holding entities encoded with CachedEntityCodec outside the Java
+ * heap, in a direct ByteBuffer or, when cache.l2.file is set, a memory-mapped file.
+ * Entities evicted from the Caffeine cache for size are demoted here and promoted back
+ * (removed from this tier) on their next lookup, so an entity lives in at most one tier.
+ * <p>
+ * Values are appended to a ring log sized in bytes, with only the index of keys to
+ * offsets and each entity's fixed expiry and first-tier deadline, which the encoding
+ * does not carry, on heap. Entries past their deadline are dropped instead of served or
+ * written back, as the first tier drops expired entries. When the log wraps, the oldest
+ * entries are overwritten first; those still live are returned by put, with any entity too large to store, for the caller to
+ * write back like Caffeine evictions. Put never blocks on the database, so it can run
+ * from the first tier's synchronous eviction listener. All operations
+ * are no-ops unless cache.l2.enabled is set. The mapped file is scratch space and is
+ * not reloaded on restart.
+ */
+@Component
+public class OffHeapStore {
+
+    public static final String CACHE_NAME = "cacheEntityOffHeap";
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapStore.class);
+
+    private final ByteBuffer buffer; // null when disabled
+    private final int capacity;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Slot> index = new HashMap<>();
+    private final ArrayDeque<Slot> log = new ArrayDeque<>(); // In write order, may contain removed slots
+    private int writePosition;
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public OffHeapStore(MeterRegistry meterRegistry,
+                        @Value("${cache.l2.enabled:false}") boolean enabled,
+                        @Value("${cache.l2.capacity-bytes:67108864}") long capacityBytes,
+                        @Value("${cache.l2.file:}") String file) {
+        if (!enabled) {
+            this.buffer = null;
+            this.capacity = 0;
+            return;
+        }
+        if (capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("cache.l2.capacity-bytes must be between 1 and " + Integer.MAX_VALUE);
+        }
+        this.capacity = (int) capacityBytes;
+        this.buffer = StringUtils.hasText(file) ? map(Path.of(file), capacity) : ByteBuffer.allocateDirect(capacity);
+        logger.info("Initializing off-heap L2 cache with capacity: {} bytes, backed by {}",
+                capacity, StringUtils.hasText(file) ? file : "direct memory");
+        new Metrics(this).bindTo(meterRegistry);
+    }
+
+    private static ByteBuffer map(Path file, int capacity) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map off-heap cache file " + file, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    /**
+     * Stores an entity, replacing any previous value for its ID and overwriting the
+     * oldest entries when the log is full
+     * @param entity The entity to store
+     * @return The entities that left this tier without being taken, to be written back:
+     * the entity itself if it does not fit, otherwise the live entries it overwrote
+     */
+    public List<CachedEntity> put(CachedEntity entity) {
+        if (buffer == null || entity == null || entity.getId() == null) {
+            return Collections.emptyList();
+        }
+        byte[] bytes = CachedEntityCodec.encode(entity);
+        if (bytes.length > capacity) {
+            rejected.increment();
+            logger.warn("Entity with ID {} of {} bytes does not fit in the off-heap cache", entity.getId(), bytes.length);
+            return List.of(entity);
+        }
+        List<Evicted> evicted = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            release(index.remove(entity.getId()));
+            int offset = allocate(bytes.length, evicted);
+            buffer.put(offset, bytes);
+            Slot slot = new Slot(entity.getId(), offset, bytes.length, entity.getExpiresAt(), deadline(entity));
+            index.put(slot.id, slot);
+            log.addLast(slot);
+            writePosition = offset + bytes.length;
+            usedBytes += bytes.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        puts.increment();
+        List<CachedEntity> displaced = new ArrayList<>(evicted.size());
+        for (Evicted value : evicted) {
+            displaced.add(decode(value.bytes(), value.expiresAt(), value.deadline()));
+        }
+        return displaced;
+    }
+
+    /**
+     * Removes an entity and returns it, for promotion back to the first tier
+     * @param id The ID of the entity
+     * @return The entity, or null if this tier does not hold it or it has expired
+     */
+    public CachedEntity take(String id) {
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes;
+        Slot slot;
+        lock.writeLock().lock();
+        try {
+            slot = index.remove(id);
+            if (slot == null) {
+                misses.increment();
+                return null;
+            }
+            release(slot);
+            if (slot.isExpired(System.currentTimeMillis())) {
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            bytes = read(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        hits.increment();
+        return decode(bytes, slot.expiresAt, slot.deadline);
+    }
+
+    // The fixed expiry when the entity has one, otherwise when the first tier would have expired it
+    private static Long deadline(CachedEntity entity) {
+        return entity.getExpiresAt() != null ? entity.getExpiresAt() : entity.getCacheExpiresAt();
+    }
+
+    private static CachedEntity decode(byte[] bytes, Long expiresAt, Long deadline) {
+        CachedEntity entity = CachedEntityCodec.decode(bytes);
+        entity.setExpiresAt(expiresAt);
+        entity.setCacheExpiresAt(deadline);
+        return entity;
+    }
+
+    public boolean contains(String id) {
+        if (buffer == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return index.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void invalidate(String id) {
+        if (buffer == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            release(index.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        if (buffer == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            log.clear();
+            writePosition = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds room for a value at the write position, wrapping to the start of the log
+     * when the tail is too short, and evicts the entries it overlaps. Entries left from
+     * the previous lap are always at the head of the log, ahead of the write position.
+     */
+    private int allocate(int length, List<Evicted> evicted) {
+        if (writePosition + length > capacity) {
+            // The rest of the tail is skipped, so entries still stored there are evicted too
+            while (!log.isEmpty() && log.peekFirst().offset >= writePosition) {
+                evict(log.pollFirst(), evicted);
+            }
+            writePosition = 0;
+        }
+        int end = writePosition + length;
+        while (!log.isEmpty() && log.peekFirst().offset >= writePosition && log.peekFirst().offset < end) {
+            evict(log.pollFirst(), evicted);
+        }
+        return writePosition;
+    }
+
+    private void evict(Slot slot, List<Evicted> evicted) {
+        if (slot.removed) {
+            return;
+        }
+        index.remove(slot.id);
+        if (!slot.isExpired(System.currentTimeMillis())) {
+            evicted.add(new Evicted(read(slot), slot.expiresAt, slot.deadline));
+        }
+        release(slot);
+        evictions.increment();
+    }
+
+    private void release(Slot slot) {
+        if (slot != null && !slot.removed) {
+            slot.removed = true;
+            usedBytes -= slot.length;
+        }
+    }
+
+    private byte[] read(Slot slot) {
+        byte[] bytes = new byte[slot.length];
+        buffer.get(slot.offset, bytes);
+        return bytes;
+    }
+
+    public int getEntryCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getCapacityBytes() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private static final class Slot {
+        private final String id;
+        private final int offset;
+        private final int length;
+        private final Long expiresAt;
+        private final Long deadline;
+        private boolean removed;
+
+        private Slot(String id, int offset, int length, Long expiresAt, Long deadline) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+            this.expiresAt = expiresAt;
+            this.deadline = deadline;
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return deadline != null && deadline <= nowMillis;
+        }
+    }
+
+    private record Evicted(byte[] bytes, Long expiresAt, Long deadline) {
+    }
+
+    /**
+     * Publishes the standard cache.* meters under the cache name of this tier, so hit
+     * ratios can be compared with the Caffeine tier, plus the bytes in use.
+     */
+    private static final class Metrics extends CacheMeterBinder<OffHeapStore> {
+
+        private Metrics(OffHeapStore store) {
+            super(store, CACHE_NAME, Tags.empty());
+        }
+
+        @Override
+        protected Long size() {
+            return (long) getCache().getEntryCount();
+        }
+
+        @Override
+        protected long hitCount() {
+            return getCache().hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            return getCache().misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return getCache().evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            return getCache().puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            Gauge.builder("cache.offheap.used", getCache(), OffHeapStore::getUsedBytes)
+                    .tags(getTagsWithCacheName())
+                    .baseUnit("bytes")
+                    .description("Bytes of serialized entities held off heap")
+                    .register(registry);
+            Gauge.builder("cache.offheap.capacity", getCache(), OffHeapStore::getCapacityBytes)
+                    .tags(getTagsWithCacheName())
+                    .baseUnit("bytes")
+                    .description("Size of the off-heap store")
+                    .register(registry);
+            FunctionCounter.builder("cache.offheap.rejected", getCache().rejected, LongAdder::sum)
+                    .tags(getTagsWithCacheName())
+                    .description("Entities too large for the off-heap store")
+                    .register(registry);
+        }
+    }
+}
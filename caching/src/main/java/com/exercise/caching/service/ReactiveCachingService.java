@@ -0,0 +1,96 @@
+package com.exercise.caching.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.exception.ValidationException;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
+import com.exercise.caching.model.CachedEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking view of CachingService. Cache hits complete immediately on the calling
+ * thread; anything that may touch the database runs on Reactor's bounded elastic
+ * scheduler, so the request thread is released while JDBC blocks. Misses still share
+ * a single load per ID through CachingService.
+ */
+@Service
+public class ReactiveCachingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCachingService.class);
+
+    private final CachingService cachingService;
+    private final Scheduler scheduler;
+    private final int concurrency;
+
+    public ReactiveCachingService(CachingService cachingService,
+                                  @Value("${cache.reactive.concurrency:16}") int concurrency) {
+        this.cachingService = cachingService;
+        this.scheduler = Schedulers.boundedElastic();
+        this.concurrency = concurrency;
+    }
+
+    public Mono<CachedEntity> get(String id) {
+        return Mono.defer(() -> {
+            CachedEntity cached = cachingService.getIfCached(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return Mono.fromCallable(() -> cachingService.get(id)).subscribeOn(scheduler);
+        });
+    }
+
+    /**
+     * Looks up several entities, emitting one result per distinct ID as soon as it is
+     * resolved rather than in request order, with at most the configured number of
+     * database loads in progress
+     * @param ids The IDs of the entities
+     * @return The results, in completion order
+     */
+    public Flux<BatchResult> getEach(List<String> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .flatMap(this::lookup, concurrency);
+    }
+
+    private Mono<BatchResult> lookup(String id) {
+        return get(id)
+                .map(entity -> BatchResult.of(entity, BatchStatus.FOUND))
+                .onErrorResume(EntityNotFoundException.class, e -> Mono.just(BatchResult.of(id, BatchStatus.NOT_FOUND)))
+                .onErrorResume(ValidationException.class,
+                        e -> Mono.just(BatchResult.failed(id, BatchStatus.INVALID, "ID cannot be null or empty")))
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving entity with ID {}: {}", id, e.getMessage());
+                    return Mono.just(BatchResult.failed(id, BatchStatus.ERROR, "Error retrieving entity"));
+                });
+    }
+
+    public Mono<CachedEntity> add(CachedEntity entity) {
+        return Mono.fromCallable(() -> cachingService.add(entity)).subscribeOn(scheduler);
+    }
+
+    public Mono<Void> remove(String id) {
+        return Mono.<Void>fromRunnable(() -> cachingService.remove(id)).subscribeOn(scheduler);
+    }
+
+    public Mono<Void> removeAll() {
+        return Mono.<Void>fromRunnable(cachingService::removeAll).subscribeOn(scheduler);
+    }
+
+    /**
+     * Clears the cache only, which never blocks on the database
+     */
+    public Mono<Void> clear() {
+        return Mono.fromRunnable(cachingService::clear);
+    }
+}
@@ -0,0 +1,575 @@
+package com.exercise.caching.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Spring Cache made of a fixed number of stripes, each an open-addressing hash table
+ * with linear probing and its own lock, as an alternative to Caffeine for small values
+ * on read-mostly workloads. Selected with cache.engine=striped.
+ * <p>
+ * Reads take no lock: they probe the stripe's current table, whose slots are published
+ * with volatile writes, and only set the entry's reference bit. Writes lock their
+ * stripe. Each stripe holds an equal share of the maximum size and evicts with CLOCK,
+ * sweeping a hand over its slots and evicting the first entry not referenced since the
+ * last sweep, so eviction is approximately LRU per stripe rather than across the cache.
+ * <p>
+ * Entries expire after the duration given by the Expiry on create and update; reads do
+ * not extend the lifetime. Expired entries are misses and are reclaimed by later writes.
+ * Removals are reported to the listener with Caffeine's causes, on the given executor.
+ * Evictions are also reported to the eviction listener, if any, synchronously while
+ * the stripe is still locked, like Caffeine's evictionListener.
+ */
+public class StripedCache<K, V> extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedCache.class);
+    private static final int MAXIMUM_STRIPES = 256;
+    // Entries per stripe below which fewer stripes are used, so CLOCK has a choice of victims
+    private static final int MINIMUM_STRIPE_CAPACITY = 16;
+    private static final long NEVER = Long.MAX_VALUE;
+    private static final long MAXIMUM_DURATION = Long.MAX_VALUE >> 1;
+    private static final Node<?, ?> REMOVED = new Node<>(null, 0, null, NEVER);
+
+    private final String name;
+    private final Stripe<K, V>[] stripes;
+    private final int stripeShift;
+    private final Expiry<K, V> expiry;
+    private final RemovalListener<K, V> evictionListener;
+    private final RemovalListener<K, V> removalListener;
+    private final Executor executor;
+    private final Ticker ticker;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StripedCache(String name, int maximumSize, Expiry<K, V> expiry, RemovalListener<K, V> removalListener,
+                        Executor executor, Ticker ticker) {
+        this(name, maximumSize, expiry, null, removalListener, executor, ticker);
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedCache(String name, int maximumSize, Expiry<K, V> expiry, RemovalListener<K, V> evictionListener,
+                        RemovalListener<K, V> removalListener, Executor executor, Ticker ticker) {
+        super(false);
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.name = name;
+        this.expiry = expiry;
+        this.evictionListener = evictionListener;
+        this.removalListener = removalListener;
+        this.executor = executor;
+        this.ticker = ticker;
+        int stripeCount = Math.min(MAXIMUM_STRIPES, Math.min(
+                ceilingPowerOfTwo(4 * Runtime.getRuntime().availableProcessors()),
+                Math.max(1, Integer.highestOneBit(maximumSize / MINIMUM_STRIPE_CAPACITY))));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0));
+        }
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Node<K, V> node = find(key);
+        if (node == null || isExpired(node, ticker.read())) {
+            misses.increment();
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        // Concurrent misses for the same key share one load, which runs without the stripe lock
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loads.putIfAbsent(key, loading);
+        if (existing != null) {
+            return (T) fromStoreValue(await(existing));
+        }
+        try {
+            Node<K, V> node = find(key);
+            if (node != null && !isExpired(node, ticker.read())) {
+                loading.complete(node.value);
+                return (T) fromStoreValue(node.value);
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            put(key, value);
+            loading.complete(toStoreValue(value));
+            return value;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, loading);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        write(key, toStoreValue(value), false);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return toValueWrapper(write(key, toStoreValue(value), true));
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        int hash = hash(key);
+        Stripe<K, V> stripe = stripeFor(hash);
+        Node<K, V> removed = null;
+        stripe.lock();
+        try {
+            AtomicReferenceArray<Node<K, V>> table = stripe.table;
+            int mask = table.length() - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Node<K, V> node = table.get(i);
+                if (node == null) {
+                    break;
+                }
+                if (node != REMOVED && node.hash == hash && node.key.equals(key)) {
+                    stripe.removeAt(i);
+                    removed = node;
+                    break;
+                }
+            }
+        } finally {
+            stripe.unlock();
+        }
+        if (removed == null) {
+            return false;
+        }
+        boolean expired = isExpired(removed, ticker.read());
+        notifyRemoval(removed, expired ? RemovalCause.EXPIRED : RemovalCause.EXPLICIT);
+        return !expired;
+    }
+
+    @Override
+    public void clear() {
+        long now = ticker.read();
+        for (Stripe<K, V> stripe : stripes) {
+            List<Node<K, V>> removed = new ArrayList<>();
+            stripe.lock();
+            try {
+                stripe.forEachNode(removed::add);
+                stripe.reset();
+            } finally {
+                stripe.unlock();
+            }
+            for (Node<K, V> node : removed) {
+                notifyRemoval(node, isExpired(node, now) ? RemovalCause.EXPIRED : RemovalCause.EXPLICIT);
+            }
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = estimatedSize() > 0;
+        clear();
+        return notEmpty;
+    }
+
+    /**
+     * @return The number of entries held, including expired entries not yet reclaimed
+     */
+    public long estimatedSize() {
+        long size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Publishes the standard cache.* meters for this cache under its name
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        new Metrics(this).bindTo(meterRegistry);
+    }
+
+    /**
+     * Stores the value unless onlyIfAbsent is set and a live entry exists
+     * @return The live value already present when onlyIfAbsent is set, or null
+     */
+    @SuppressWarnings("unchecked")
+    private Object write(Object key, Object value, boolean onlyIfAbsent) {
+        int hash = hash(key);
+        Stripe<K, V> stripe = stripeFor(hash);
+        long now = ticker.read();
+        List<Node<K, V>> expired = new ArrayList<>(0);
+        Node<K, V> replaced = null;
+        Node<K, V> evicted = null;
+        stripe.lock();
+        try {
+            AtomicReferenceArray<Node<K, V>> table = stripe.table;
+            int mask = table.length() - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Node<K, V> node = table.get(i);
+                if (node == null) {
+                    break;
+                }
+                if (node != REMOVED && node.hash == hash && node.key.equals(key)) {
+                    if (isExpired(node, now)) {
+                        table.set(i, newNode(node.key, hash, (V) value, now, null));
+                        expired.add(node);
+                    } else if (onlyIfAbsent) {
+                        node.referenced = true;
+                        return node.value;
+                    } else {
+                        table.set(i, newNode(node.key, hash, (V) value, now, node));
+                        replaced = node;
+                    }
+                    puts.increment();
+                    return null;
+                }
+            }
+            if (stripe.size >= stripe.capacity) {
+                evicted = stripe.evictOne(now, expired);
+            }
+            stripe.insert(newNode((K) key, hash, (V) value, now, null), now, expired);
+            puts.increment();
+            return null;
+        } finally {
+            try {
+                if (evicted != null) {
+                    notifyEviction(evicted, RemovalCause.SIZE);
+                }
+                for (Node<K, V> node : expired) {
+                    notifyEviction(node, RemovalCause.EXPIRED);
+                }
+            } finally {
+                stripe.unlock();
+            }
+            if (replaced != null) {
+                notifyRemoval(replaced, RemovalCause.REPLACED);
+            }
+            if (evicted != null) {
+                evictions.increment();
+                notifyRemoval(evicted, RemovalCause.SIZE);
+            }
+            for (Node<K, V> node : expired) {
+                evictions.increment();
+                notifyRemoval(node, RemovalCause.EXPIRED);
+            }
+        }
+    }
+
+    private Node<K, V> newNode(K key, int hash, V value, long now, Node<K, V> previous) {
+        long duration;
+        if (expiry == null) {
+            duration = NEVER;
+        } else if (previous == null) {
+            duration = expiry.expireAfterCreate(key, value, now);
+        } else {
+            long remaining = previous.expiresAt == NEVER ? NEVER : previous.expiresAt - now;
+            duration = expiry.expireAfterUpdate(key, value, now, remaining);
+        }
+        return new Node<>(key, hash, value, duration > MAXIMUM_DURATION ? NEVER : now + duration);
+    }
+
+    private Node<K, V> find(Object key) {
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> table = stripeFor(hash).table;
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Node<K, V> node = table.get(i);
+            if (node == null) {
+                return null;
+            }
+            if (node != REMOVED && node.hash == hash && node.key.equals(key)) {
+                return node;
+            }
+        }
+    }
+
+    // Called with the stripe locked; a failing listener must not fail the write
+    private void notifyEviction(Node<K, V> node, RemovalCause cause) {
+        if (evictionListener != null) {
+            try {
+                evictionListener.onRemoval(node.key, node.value, cause);
+            } catch (RuntimeException e) {
+                logger.warn("Eviction listener failed for key {}: {}", node.key, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void notifyRemoval(Node<K, V> node, RemovalCause cause) {
+        if (removalListener != null) {
+            executor.execute(() -> removalListener.onRemoval(node.key, node.value, cause));
+        }
+    }
+
+    private Stripe<K, V> stripeFor(int hash) {
+        // Top bits pick the stripe, low bits the slot within it
+        return stripes.length == 1 ? stripes[0] : stripes[hash >>> stripeShift];
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isExpired(Node<?, ?> node, long now) {
+        return node.expiresAt != NEVER && now - node.expiresAt >= 0;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final int hash;
+        private final V value;
+        private final long expiresAt;
+        private volatile boolean referenced;
+
+        private Node(K key, int hash, V value, long expiresAt) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A table sized to at least twice the stripe's capacity. Removed slots become
+     * tombstones so probes from readers keep finding the keys behind them, or are cleared
+     * when they end a probe sequence; the table is rebuilt without tombstones once live
+     * and removed slots take three quarters of it. All fields are guarded by the lock,
+     * except the table reference that readers load.
+     */
+    @SuppressWarnings({"serial", "unchecked"})
+    private static final class Stripe<K, V> extends ReentrantLock {
+        private final int capacity;
+        private volatile AtomicReferenceArray<Node<K, V>> table;
+        private int size;
+        private int removed;
+        private int hand;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            reset();
+        }
+
+        private void reset() {
+            table = new AtomicReferenceArray<>(ceilingPowerOfTwo(Math.max(2, 2 * capacity)));
+            size = 0;
+            removed = 0;
+            hand = 0;
+        }
+
+        private void forEachNode(Consumer<Node<K, V>> action) {
+            for (int i = 0; i < table.length(); i++) {
+                Node<K, V> node = table.get(i);
+                if (node != null && node != REMOVED) {
+                    action.accept(node);
+                }
+            }
+        }
+
+        private void insert(Node<K, V> node, long now, List<Node<K, V>> expired) {
+            if (size + removed + 1 > table.length() * 3 / 4) {
+                rebuild(now, expired);
+            }
+            AtomicReferenceArray<Node<K, V>> slots = table;
+            int mask = slots.length() - 1;
+            for (int i = node.hash & mask; ; i = (i + 1) & mask) {
+                Node<K, V> current = slots.get(i);
+                if (current == null || current == REMOVED) {
+                    if (current == REMOVED) {
+                        removed--;
+                    }
+                    slots.set(i, node);
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Publishes a new table holding the live entries, dropping tombstones and expired entries
+         */
+        private void rebuild(long now, List<Node<K, V>> expired) {
+            AtomicReferenceArray<Node<K, V>> rebuilt = new AtomicReferenceArray<>(table.length());
+            int mask = rebuilt.length() - 1;
+            int live = 0;
+            for (int i = 0; i < table.length(); i++) {
+                Node<K, V> node = table.get(i);
+                if (node == null || node == REMOVED) {
+                    continue;
+                }
+                if (isExpired(node, now)) {
+                    expired.add(node);
+                    continue;
+                }
+                int slot = node.hash & mask;
+                while (rebuilt.get(slot) != null) {
+                    slot = (slot + 1) & mask;
+                }
+                rebuilt.set(slot, node);
+                live++;
+            }
+            table = rebuilt;
+            size = live;
+            removed = 0;
+            hand = 0;
+        }
+
+        /**
+         * Sweeps the CLOCK hand until it finds an expired entry or one not referenced
+         * since the last sweep, clearing reference bits on the way, and removes it
+         * @return The entry evicted for size, or null if an expired entry was removed instead
+         */
+        private Node<K, V> evictOne(long now, List<Node<K, V>> expired) {
+            AtomicReferenceArray<Node<K, V>> slots = table;
+            int mask = slots.length() - 1;
+            // Two turns always find a victim: the first clears every reference bit
+            for (int scanned = 0; scanned <= 2 * slots.length(); scanned++) {
+                int i = hand;
+                hand = (hand + 1) & mask;
+                Node<K, V> node = slots.get(i);
+                if (node == null || node == REMOVED) {
+                    continue;
+                }
+                if (isExpired(node, now)) {
+                    removeAt(i);
+                    expired.add(node);
+                    return null;
+                }
+                if (node.referenced) {
+                    node.referenced = false;
+                    continue;
+                }
+                removeAt(i);
+                return node;
+            }
+            return null;
+        }
+
+        private void removeAt(int index) {
+            AtomicReferenceArray<Node<K, V>> slots = table;
+            int mask = slots.length() - 1;
+            if (slots.get((index + 1) & mask) != null) {
+                slots.set(index, (Node<K, V>) REMOVED);
+                removed++;
+            } else {
+                // Nothing is probed past this slot, so it and the tombstones before it can be cleared
+                slots.set(index, null);
+                for (int i = (index - 1) & mask; slots.get(i) == REMOVED; i = (i - 1) & mask) {
+                    slots.set(i, null);
+                    removed--;
+                }
+            }
+            size--;
+        }
+    }
+
+    private static final class Metrics extends CacheMeterBinder<StripedCache<?, ?>> {
+
+        private Metrics(StripedCache<?, ?> cache) {
+            super(cache, cache.getName(), Tags.empty());
+        }
+
+        @Override
+        protected Long size() {
+            return getCache().estimatedSize();
+        }
+
+        @Override
+        protected long hitCount() {
+            return getCache().hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            return getCache().misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return getCache().evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            return getCache().puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.exercise.caching.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically purges rows from the database whose TTL has run out, and rows not
+ * accessed, or never accessed and stored, within the retention period. Rows are
+ * deleted in chunks of cache.delete.chunk-size, each committed on its own, with a
+ * pause between chunks so a large backlog does not monopolize the database. The
+ * entities of each chunk are then evicted from the cache tiers, so a swept row is no
+ * longer served. Does nothing unless cache.sweeper.enabled is set.
+ */
+@Component
+public class TtlSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(TtlSweeper.class);
+
+    private final CachingRepository repository;
+    private final CachingService cachingService;
+    private final boolean enabled;
+    private final Duration retention;
+    private final long intervalMs;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ttl-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopped;
+
+    public TtlSweeper(CachingRepository repository,
+                      CachingService cachingService,
+                      MeterRegistry meterRegistry,
+                      @Value("${cache.sweeper.enabled:false}") boolean enabled,
+                      @Value("${cache.sweeper.retention-hours:168}") long retentionHours,
+                      @Value("${cache.sweeper.interval-ms:60000}") long intervalMs,
+                      @Value("${cache.delete.chunk-size:1000}") int chunkSize,
+                      @Value("${cache.sweeper.chunk-pause-ms:50}") long chunkPauseMs) {
+        this.repository = repository;
+        this.cachingService = cachingService;
+        this.enabled = enabled;
+        this.retention = Duration.ofHours(retentionHours);
+        this.intervalMs = intervalMs;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMs = chunkPauseMs;
+        this.rowsPerRun = DistributionSummary.builder("cache.sweeper.rows")
+                .description("Rows deleted per sweep")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("cache.sweeper.duration")
+                .description("Time taken by a sweep, including pauses between chunks")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Starting TTL sweeper every {} ms with retention {} and chunks of {} rows",
+                intervalMs, retention, chunkSize);
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        sweeper.shutdown();
+        try {
+            if (!sweeper.awaitTermination(chunkPauseMs + 5000, TimeUnit.MILLISECONDS)) {
+                logger.warn("TTL sweeper did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes expired rows, then rows not accessed within the retention period
+     * @return The number of rows deleted
+     */
+    long sweep(long nowMillis, LocalDateTime now) {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = now.minus(retention);
+        long expired = deleteInChunks(limit -> repository.deleteExpired(nowMillis, limit));
+        long stale = deleteInChunks(limit -> repository.deleteNotAccessedSince(cutoff, limit));
+        long elapsed = System.nanoTime() - start;
+        rowsPerRun.record(expired + stale);
+        runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (expired + stale > 0) {
+            logger.info("Swept {} expired and {} stale rows in {} ms", expired, stale,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return expired + stale;
+    }
+
+    private long deleteInChunks(IntFunction<List<String>> deleteChunk) {
+        long deleted = 0;
+        while (!stopped) {
+            List<String> ids = deleteChunk.apply(chunkSize);
+            cachingService.evict(ids);
+            deleted += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            if (chunkPauseMs > 0) {
+                try {
+                    Thread.sleep(chunkPauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep(System.currentTimeMillis(), LocalDateTime.now());
+        } catch (Exception e) {
+            logger.error("TTL sweep failed: {}", e.getMessage(), e);
+        }
+    }
+}
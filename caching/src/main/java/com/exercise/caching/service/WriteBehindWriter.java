@@ -0,0 +1,334 @@
+package com.exercise.caching.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.exercise.caching.exception.CachingException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Persists entities asynchronously when cache.write-mode=write-behind.
+ * Pending writes are kept in a bounded map keyed by entity ID, so repeated writes to
+ * the same ID coalesce into one row update. A dedicated writer thread flushes them
+ * with JDBC batch updates every flush interval or once a batch is full; a write only
+ * leaves the map after it has been persisted, so failed batches are retried and
+ * readers can still see writes that are not yet in the database.
+ * <p>
+ * A batch that fails for a reason other than a transient database failure is split in
+ * halves until the failing rows are written alone. A row that still fails on its own
+ * max-attempts times is dead-lettered: logged, counted and dropped from the queue, so
+ * it cannot hold its permit and block every later write.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.write-mode", havingValue = "write-behind")
+public class WriteBehindWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    private final CachingRepository repository;
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+
+    private final ConcurrentHashMap<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Semaphore capacity;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-behind-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter coalescedCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetterCounter;
+
+    public WriteBehindWriter(CachingRepository repository,
+                             MeterRegistry meterRegistry,
+                             @Value("${cache.write-behind.capacity:10000}") int capacity,
+                             @Value("${cache.write-behind.batch-size:500}") int batchSize,
+                             @Value("${cache.write-behind.flush-interval-ms:500}") long flushIntervalMs,
+                             @Value("${cache.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+                             @Value("${cache.write-behind.max-attempts:3}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("cache.write-behind.max-attempts must be at least 1: " + maxAttempts);
+        }
+        this.repository = repository;
+        this.capacity = new Semaphore(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("cache.write.behind.queue.depth", pending, ConcurrentHashMap::size)
+                .description("Entities waiting to be written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("cache.write.behind.flush")
+                .description("Time taken to write one batch to the database")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("cache.write.behind.lag")
+                .description("Time between a write being queued and it being persisted")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("cache.write.behind.coalesced")
+                .description("Writes merged into an already pending write for the same ID")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("cache.write.behind.failures")
+                .description("Batches that failed to be written and will be retried or split")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("cache.write.behind.dead.letters")
+                .description("Entities dropped after failing to be written on their own max-attempts times")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        logger.info("Starting write-behind writer with interval {} ms and batch size {}", flushIntervalMs, batchSize);
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(flushIntervalMs + 5000, TimeUnit.MILLISECONDS)) {
+                logger.warn("Write-behind writer did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        if (!pending.isEmpty()) {
+            logger.error("Write-behind writer stopped with {} unpersisted entities", pending.size());
+        }
+    }
+
+    /**
+     * Queues an entity to be persisted, waiting up to the offer timeout for room
+     * @param entity The entity to persist
+     * @throws CachingException if the queue stays full for longer than the offer timeout
+     */
+    public void enqueue(CachedEntity entity) {
+        try {
+            if (!capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Write-behind queue is full, rejecting entity with ID: {}", entity.getId());
+                throw new CachingException("Write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CachingException("Interrupted while waiting for write-behind queue", e);
+        }
+        put(entity);
+    }
+
+    /**
+     * Queues an entity to be persisted without waiting
+     * @param entity The entity to persist
+     * @return false if the queue is full
+     */
+    public boolean offer(CachedEntity entity) {
+        if (!capacity.tryAcquire()) {
+            return false;
+        }
+        put(entity);
+        return true;
+    }
+
+    /**
+     * Returns the not yet persisted value of an entity, if any
+     * @param id The ID of the entity
+     * @return The pending entity or null
+     */
+    public CachedEntity getPending(String id) {
+        PendingWrite write = pending.get(id);
+        return write != null ? write.entity() : null;
+    }
+
+    /**
+     * Drops the pending write of an entity so it is not persisted after being deleted.
+     * Waits for an in-flight flush so a batch cannot resurrect the entity.
+     * @param id The ID of the entity
+     * @return true if a pending write was dropped
+     */
+    public boolean cancel(String id) {
+        flushLock.lock();
+        try {
+            if (pending.remove(id) != null) {
+                capacity.release();
+                return true;
+            }
+            return false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops all pending writes
+     */
+    public void cancelAll() {
+        flushLock.lock();
+        try {
+            for (String id : pending.keySet()) {
+                if (pending.remove(id) != null) {
+                    capacity.release();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    private void put(CachedEntity entity) {
+        PendingWrite write = new PendingWrite(entity, System.nanoTime(), new AtomicInteger());
+        PendingWrite previous = pending.putIfAbsent(entity.getId(), write);
+        while (previous != null) {
+            // Keep the time of the oldest unpersisted write so lag is not underreported
+            if (pending.replace(entity.getId(), previous,
+                    new PendingWrite(entity, previous.enqueuedAt(), new AtomicInteger()))) {
+                capacity.release();
+                coalescedCounter.increment();
+                return;
+            }
+            previous = pending.putIfAbsent(entity.getId(), write);
+        }
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes all pending entities in batches. Entries are removed only once their batch
+     * has been persisted, and only if they were not overwritten in the meantime.
+     */
+    void flush() {
+        flushRequested.set(false);
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch = new ArrayList<>(batchSize);
+            for (PendingWrite write : pending.values()) {
+                batch.add(write);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        List<CachedEntity> entities = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            entities.add(write.entity());
+        }
+        long start = System.nanoTime();
+        try {
+            repository.saveAll(entities);
+        } catch (Exception e) {
+            failureCounter.increment();
+            handleFailure(batch, e);
+            return;
+        }
+        long now = System.nanoTime();
+        flushTimer.record(now - start, TimeUnit.NANOSECONDS);
+        for (PendingWrite write : batch) {
+            if (pending.remove(write.entity().getId(), write)) {
+                capacity.release();
+            }
+            lagTimer.record(now - write.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        logger.debug("Wrote {} entities behind", batch.size());
+    }
+
+    private void handleFailure(List<PendingWrite> batch, Exception e) {
+        if (isTransient(e)) {
+            logger.error("Failed to write {} entities, will retry: {}", batch.size(), e.getMessage());
+            return;
+        }
+        if (batch.size() > 1) {
+            logger.warn("Failed to write {} entities, splitting the batch: {}", batch.size(), e.getMessage());
+            int half = batch.size() / 2;
+            writeBatch(new ArrayList<>(batch.subList(0, half)));
+            writeBatch(new ArrayList<>(batch.subList(half, batch.size())));
+            return;
+        }
+        PendingWrite write = batch.get(0);
+        String id = write.entity().getId();
+        int attempts = write.failures().incrementAndGet();
+        if (attempts < maxAttempts) {
+            logger.error("Failed to write entity with ID {} (attempt {} of {}), will retry: {}",
+                    id, attempts, maxAttempts, e.getMessage());
+            return;
+        }
+        if (pending.remove(id, write)) {
+            capacity.release();
+            deadLetterCounter.increment();
+            logger.error("Dropping entity with ID {} after {} failed writes: {}", id, attempts, e.getMessage(), e);
+        }
+    }
+
+    // A database that is down or busy fails every row, so no row is blamed for it
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Unexpected error while writing behind: {}", e.getMessage(), e);
+        }
+    }
+
+    // Failures counts the attempts of this value written alone; a newer value starts again
+    private record PendingWrite(CachedEntity entity, long enqueuedAt, AtomicInteger failures) {
+    }
+}
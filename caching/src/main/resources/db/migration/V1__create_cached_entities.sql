@@ -0,0 +1,5 @@
+CREATE TABLE cached_entities (
+    id VARCHAR(255) PRIMARY KEY,
+    data VARCHAR(255),
+    last_accessed TIMESTAMP
+);
@@ -0,0 +1,2 @@
+-- Supports TTL sweeps and warm-up queries ordered by access time
+CREATE INDEX idx_cached_entities_last_accessed ON cached_entities (last_accessed);
@@ -0,0 +1,4 @@
+-- Optional per-entry time to live; rows past expires_at are no longer served and can be swept
+ALTER TABLE cached_entities ADD COLUMN ttl_seconds BIGINT;
+ALTER TABLE cached_entities ADD COLUMN expires_at TIMESTAMP;
+CREATE INDEX idx_cached_entities_expires_at ON cached_entities (expires_at);
@@ -0,0 +1,2 @@
+-- Data compressed with Deflate, set instead of data for entities above the compression threshold
+ALTER TABLE cached_entities ADD COLUMN data_deflated VARBINARY;
@@ -0,0 +1,2 @@
+-- When the row was first stored; rows never accessed are swept by their age instead
+ALTER TABLE cached_entities ADD COLUMN created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL;
@@ -0,0 +1,2 @@
+-- Text data has no length limit, as entities below the compression threshold are stored as text
+ALTER TABLE cached_entities ALTER COLUMN data SET DATA TYPE CLOB;
@@ -0,0 +1,99 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.EvictionHandler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@SpringBootTest(properties = {"cache.max.size=5", "cache.expire.minutes=1"})
+class CacheConfigTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private Cache<String, CachedEntity> caffeineCache;
+
+    @Autowired
+    @Qualifier("cacheRemovalListener")
+    private RemovalListener<String, CachedEntity> cacheRemovalListener;
+
+    @MockitoBean
+    private EvictionHandler evictionHandler;
+
+    @BeforeEach
+    void setUp() {
+        caffeineCache.invalidateAll();
+        caffeineCache.cleanUp();
+    }
+
+    @Test
+    void cacheEntityIsBackedByConfiguredCaffeineCache() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.CACHE_NAME);
+
+        assertNotNull(cache);
+        assertSame(caffeineCache, cache.getNativeCache());
+    }
+
+    @Test
+    void whenCacheExceedsMaxSize_thenEntriesAreEvicted() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.CACHE_NAME);
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, LocalDateTime.now()));
+        }
+        caffeineCache.cleanUp();
+
+        assertTrue(caffeineCache.estimatedSize() <= 5);
+        assertTrue(caffeineCache.stats().evictionCount() >= 45);
+        verify(evictionHandler, timeout(5000).atLeastOnce()).handleEviction(any(CachedEntity.class));
+    }
+
+    @Test
+    void whenEntryExpires_thenItIsNotWrittenBack() {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+
+        cacheRemovalListener.onRemoval("id1", entity, RemovalCause.EXPIRED);
+        verify(evictionHandler, never()).handleEviction(any(CachedEntity.class));
+
+        cacheRemovalListener.onRemoval("id1", entity, RemovalCause.SIZE);
+        verify(evictionHandler).handleEviction(entity);
+    }
+
+    @Test
+    void whenCacheIsRead_thenStatsAreRecorded() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.CACHE_NAME);
+        CacheStats before = caffeineCache.stats();
+
+        cache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        assertNotNull(cache.get("id1"));
+        assertNull(cache.get("missing"));
+
+        CacheStats delta = caffeineCache.stats().minus(before);
+        assertEquals(1, delta.hitCount());
+        assertEquals(1, delta.missCount());
+    }
+}
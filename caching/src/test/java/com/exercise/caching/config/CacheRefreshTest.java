@@ -0,0 +1,75 @@
+package com.exercise.caching.config;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.exercise.caching.service.CachingService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+@SpringBootTest(properties = {"cache.refresh.enabled=true", "cache.refresh.after-write-minutes=1"})
+class CacheRefreshTest {
+
+    @Autowired
+    private Cache<String, CachedEntity> caffeineCache;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @MockitoBean
+    private CachingRepository repository;
+
+    @Test
+    void whenRefreshEnabled_thenCacheIsLoadingWithRefreshAfterWrite() {
+        assertInstanceOf(LoadingCache.class, caffeineCache);
+        assertTrue(caffeineCache.policy().refreshAfterWrite().isPresent());
+    }
+
+    @Test
+    void whenEntryIsRefreshed_thenItIsReloadedInBackground() {
+        LoadingCache<String, CachedEntity> loadingCache = (LoadingCache<String, CachedEntity>) caffeineCache;
+        when(repository.findById("refresh-id"))
+                .thenReturn(Optional.of(new CachedEntity("refresh-id", "stale", LocalDateTime.now())))
+                .thenReturn(Optional.of(new CachedEntity("refresh-id", "fresh", LocalDateTime.now())));
+
+        assertEquals("stale", cachingService.get("refresh-id").getData());
+        loadingCache.refresh("refresh-id");
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertEquals("fresh", caffeineCache.getIfPresent("refresh-id").getData()));
+        verify(repository, times(2)).findById("refresh-id");
+    }
+
+    @Test
+    void whenBatchMisses_thenTheyAreLoadedWithOneQuery() {
+        caffeineCache.put("hit-id", new CachedEntity("hit-id", "hit", LocalDateTime.now()));
+        when(repository.findAllById(anyCollection()))
+                .thenReturn(List.of(new CachedEntity("miss-id", "miss", LocalDateTime.now())));
+
+        List<BatchResult> results = cachingService.getBatch(List.of("hit-id", "miss-id", "missing-id"));
+
+        assertEquals(List.of(BatchStatus.FOUND, BatchStatus.FOUND, BatchStatus.NOT_FOUND),
+                results.stream().map(BatchResult::getStatus).toList());
+        verify(repository, times(1)).findAllById(anyCollection());
+    }
+}
@@ -0,0 +1,62 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+import com.exercise.caching.model.DataDeflater;
+import com.exercise.caching.model.ErrorResponse;
+
+class CachedEntityHttpMessageConverterTest {
+
+    private final CachedEntityHttpMessageConverter converter = new CachedEntityHttpMessageConverter();
+
+    @Test
+    void whenEntityIsWritten_thenBodyIsCodecEncoding() throws IOException {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(entity, CachedEntityHttpMessageConverter.MEDIA_TYPE, output);
+
+        assertEquals(CachedEntityHttpMessageConverter.MEDIA_TYPE, output.getHeaders().getContentType());
+        assertArrayEquals(CachedEntityCodec.encode(entity), output.getBodyAsBytes());
+        assertEquals(entity, converter.read(CachedEntity.class, new MockHttpInputMessage(output.getBodyAsBytes())));
+    }
+
+    @Test
+    void onlyCachedEntityInTheBinaryMediaTypeIsSupported() {
+        assertTrue(converter.canWrite(CachedEntity.class, CachedEntityHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(CachedEntity.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ErrorResponse.class, CachedEntityHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void whenBodyIsNotAnEncodedEntity_thenItIsNotReadable() {
+        MockHttpInputMessage input = new MockHttpInputMessage(new byte[] {42});
+
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(CachedEntity.class, input));
+    }
+
+    @Test
+    void whenBodyHoldsCompressedData_thenItIsNotReadable() {
+        CachedEntity entity = new CachedEntity("id1", null, null);
+        entity.setDeflatedData(DataDeflater.deflate("abc".repeat(1000), 1));
+        MockHttpInputMessage input = new MockHttpInputMessage(CachedEntityCodec.encode(entity));
+
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(CachedEntity.class, input));
+    }
+}
@@ -0,0 +1,65 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class CachingPasswordEncoderTest {
+
+    private PasswordEncoder bcrypt;
+    private CachingPasswordEncoder encoder;
+    private String hash;
+
+    @BeforeEach
+    void setUp() {
+        bcrypt = spy(new BCryptPasswordEncoder(4));
+        encoder = new CachingPasswordEncoder(bcrypt, 100, Duration.ofMinutes(5));
+        hash = encoder.encode("secret");
+    }
+
+    @Test
+    void whenSameCredentialsMatchAgain_thenDelegateIsCalledOnce() {
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+
+        verify(bcrypt, times(1)).matches("secret", hash);
+        assertEquals(1, encoder.getCache().estimatedSize());
+    }
+
+    @Test
+    void whenPasswordIsWrong_thenItIsNeverCached() {
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.matches("wrong", hash));
+
+        verify(bcrypt, times(2)).matches("wrong", hash);
+        assertEquals(0, encoder.getCache().estimatedSize());
+    }
+
+    @Test
+    void whenStoredHashChanges_thenCachedMatchDoesNotApply() {
+        assertTrue(encoder.matches("secret", hash));
+        String newHash = encoder.encode("other");
+
+        assertFalse(encoder.matches("secret", newHash));
+        assertTrue(encoder.matches("other", newHash));
+    }
+
+    @Test
+    void cacheKeysDoNotContainThePassword() {
+        encoder.matches("secret", hash);
+
+        encoder.getCache().asMap().keySet()
+                .forEach(key -> assertFalse(key.contains("secret") || key.contains(hash)));
+    }
+}
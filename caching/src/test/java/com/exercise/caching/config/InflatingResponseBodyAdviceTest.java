@@ -0,0 +1,81 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.model.BatchResponse;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.DataCompressor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InflatingResponseBodyAdviceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataCompressor compressor = new DataCompressor(meterRegistry, true, 1024, 1);
+    private final InflatingResponseBodyAdvice advice = new InflatingResponseBodyAdvice(compressor);
+
+    private CachedEntity compressed(String id, String data) {
+        CachedEntity entity = new CachedEntity(id, data, LocalDateTime.now());
+        entity.setTtlSeconds(60L);
+        entity.startTtl(System.currentTimeMillis());
+        assertTrue(compressor.compress(entity));
+        return entity;
+    }
+
+    private double inflations() {
+        return meterRegistry.get("cache.compression.time").tag("operation", "inflate").timer().count();
+    }
+
+    @Test
+    void whenBodyIsACompressedEntity_thenACopyWithTextDataIsWritten() {
+        String data = "abc".repeat(1000);
+        CachedEntity entity = compressed("id1", data);
+
+        CachedEntity written = (CachedEntity) advice.beforeBodyWrite(entity, null, null, null, null, null);
+
+        assertFalse(written.isCompressed());
+        assertEquals(data, written.getData());
+        assertEquals(entity.getCacheAccessedTime(), written.getCacheAccessedTime());
+        assertEquals(entity.getTtlSeconds(), written.getTtlSeconds());
+        assertEquals(entity.getExpiresAt(), written.getExpiresAt());
+        assertTrue(entity.isCompressed());
+        assertEquals(1, inflations());
+    }
+
+    @Test
+    void whenBodyIsABatchResponse_thenEachCompressedEntityIsInflatedOnce() {
+        CachedEntity text = new CachedEntity("id1", "data1", LocalDateTime.now());
+        CachedEntity entity = compressed("id2", "xyz".repeat(1000));
+        BatchResponse batch = new BatchResponse(List.of(
+                BatchResult.of(text, BatchStatus.FOUND),
+                BatchResult.of(entity, BatchStatus.FOUND),
+                BatchResult.of("id3", BatchStatus.NOT_FOUND)));
+
+        assertSame(batch, advice.beforeBodyWrite(batch, null, null, null, null, null));
+
+        assertSame(text, batch.getResults().get(0).getEntity());
+        assertEquals("xyz".repeat(1000), batch.getResults().get(1).getEntity().getData());
+        assertFalse(batch.getResults().get(1).getEntity().isCompressed());
+        assertTrue(entity.isCompressed());
+        assertEquals(1, inflations());
+    }
+
+    @Test
+    void whenBodyHasNoCompressedEntity_thenItIsWrittenAsIs() {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+
+        assertSame(entity, advice.beforeBodyWrite(entity, null, null, null, null, null));
+        assertEquals("ok", advice.beforeBodyWrite("ok", null, null, null, null, null));
+        assertEquals(0, inflations());
+    }
+}
@@ -0,0 +1,138 @@
+package com.exercise.caching.config;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.exercise.caching.service.CachingService;
+import com.exercise.caching.service.EvictionHandler;
+import com.exercise.caching.service.OffHeapStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {"cache.max.size=5", "cache.l2.enabled=true", "cache.l2.capacity-bytes=4096"})
+class OffHeapTierTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private Cache<String, CachedEntity> caffeineCache;
+
+    @Autowired
+    private OffHeapStore offHeapStore;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("cacheEvictionListener")
+    private RemovalListener<String, CachedEntity> cacheEvictionListener;
+
+    @Autowired
+    @Qualifier("cacheRemovalListener")
+    private RemovalListener<String, CachedEntity> cacheRemovalListener;
+
+    @MockitoBean
+    private EvictionHandler evictionHandler;
+
+    @MockitoBean
+    private CachingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        caffeineCache.invalidateAll();
+        offHeapStore.invalidateAll();
+    }
+
+    @Test
+    void whenEntriesAreEvictedForSize_thenTheyAreDemotedAndPromotedOnLookup() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.CACHE_NAME);
+        for (int i = 0; i < 50; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, LocalDateTime.now()));
+        }
+        caffeineCache.cleanUp();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> offHeapStore.getEntryCount() + caffeineCache.estimatedSize() == 50);
+
+        String demotedId = offHeapStore.contains("id0") ? "id0" : "id1";
+        assertEquals("data" + demotedId.substring(2), cachingService.get(demotedId).getData());
+
+        verify(repository, never()).findById(anyString());
+        verify(evictionHandler, never()).handleEviction(any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", OffHeapStore.CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void whenEntryIsRemovedBeforeRemovalNotificationsRun_thenItIsNotDemotedAfterwards() {
+        // Holds Caffeine's asynchronous work, such as removal notifications, until run below
+        Queue<Runnable> pendingTasks = new ArrayDeque<>();
+        Cache<String, CachedEntity> cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .executor(pendingTasks::add)
+                .evictionListener(cacheEvictionListener)
+                .removalListener(cacheRemovalListener)
+                .build();
+        cache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        cache.put("id2", new CachedEntity("id2", "data2", LocalDateTime.now()));
+        cache.cleanUp();
+        String evicted = cache.getIfPresent("id1") == null ? "id1" : "id2";
+        assertTrue(offHeapStore.contains(evicted));
+
+        // What CachingService.remove does after deleting the row
+        cache.invalidate(evicted);
+        offHeapStore.invalidate(evicted);
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.poll().run();
+        }
+
+        assertFalse(offHeapStore.contains(evicted));
+        verify(evictionHandler, never()).handleEviction(any());
+    }
+
+    @Test
+    void whenOffHeapTierRejectsAnEvictedEntry_thenItIsWrittenBackOffTheEvictingThread() {
+        AtomicReference<String> writeBackThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            writeBackThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(evictionHandler).handleEviction(any());
+        CachedEntity tooLarge = new CachedEntity("large", "x".repeat(5000), LocalDateTime.now());
+
+        cacheEvictionListener.onRemoval("large", tooLarge, RemovalCause.SIZE);
+
+        verify(evictionHandler, timeout(5000)).handleEviction(tooLarge);
+        assertTrue(writeBackThread.get().startsWith("cache-refresh-"));
+        assertFalse(offHeapStore.contains("large"));
+    }
+}
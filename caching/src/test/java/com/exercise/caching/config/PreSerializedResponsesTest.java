@@ -0,0 +1,101 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.DataDeflater;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class PreSerializedResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private PreSerializedResponses responses(boolean enabled, boolean gzip) {
+        return new PreSerializedResponses(objectMapper, enabled, gzip, 1 << 20);
+    }
+
+    @Test
+    void whenEnabled_thenJsonIsSerializedOnceUntilTheEntityChanges() throws IOException {
+        PreSerializedResponses responses = responses(true, false);
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+
+        ResponseEntity<byte[]> first = responses.response(entity, null, "gzip");
+        assertNotNull(first);
+        assertArrayEquals(objectMapper.writeValueAsBytes(entity), first.getBody());
+        assertEquals("W/\"" + entity.getEntityTag() + "\"", first.getHeaders().getETag());
+        assertNull(first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(first.getBody(), responses.response(entity, "application/json", null).getBody());
+
+        entity.setData("data2");
+        byte[] changed = responses.response(entity, "*/*", null).getBody();
+        assertNotSame(first.getBody(), changed);
+        assertArrayEquals(objectMapper.writeValueAsBytes(entity), changed);
+        assertEquals(changed.length, responses.keptBytes());
+    }
+
+    @Test
+    void whenKeptBodiesExceedTheirBound_thenTheyAreEvicted() {
+        PreSerializedResponses responses = new PreSerializedResponses(objectMapper, true, true, 10_000);
+        List<CachedEntity> entities = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            CachedEntity entity = new CachedEntity("id" + i, "x".repeat(1000), LocalDateTime.now());
+            entities.add(entity);
+            responses.response(entity, null, "gzip");
+        }
+
+        assertTrue(responses.keptBytes() > 0);
+        assertTrue(responses.keptBytes() <= 10_000);
+        assertNotNull(responses.response(entities.get(0), null, "gzip").getBody());
+    }
+
+    @Test
+    void whenGzipIsAccepted_thenGzippedBodyHasItsOwnETag() throws IOException {
+        PreSerializedResponses responses = responses(true, true);
+        CachedEntity entity = new CachedEntity("id1", "data1".repeat(100), LocalDateTime.now());
+
+        ResponseEntity<byte[]> gzipped = responses.response(entity, null, "deflate, gzip;q=0.8");
+        ResponseEntity<byte[]> plain = responses.response(entity, null, "gzip;q=0");
+
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertSame(gzipped.getBody(), responses.response(entity, null, "gzip").getBody());
+    }
+
+    @Test
+    void whenDisabledOrNotJson_thenConvertersSerializeTheEntity() {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+        CachedEntity compressed = new CachedEntity("id2", null, LocalDateTime.now());
+        compressed.setDeflatedData(DataDeflater.deflate("data2", 1));
+
+        assertNull(responses(false, false).response(entity, null, null));
+        PreSerializedResponses enabled = responses(true, false);
+        assertNull(enabled.response(entity, CachedEntityHttpMessageConverter.MEDIA_TYPE_VALUE, null));
+        assertNull(enabled.response(entity, "text/html", null));
+        assertNull(enabled.response(compressed, null, null));
+        assertEquals(0, enabled.keptBytes());
+    }
+}
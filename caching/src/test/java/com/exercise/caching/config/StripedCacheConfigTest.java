@@ -0,0 +1,96 @@
+package com.exercise.caching.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.EvictionHandler;
+import com.exercise.caching.service.StripedCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {"cache.engine=striped", "cache.max.size=5", "cache.expire.minutes=1"})
+class StripedCacheConfigTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockitoBean
+    private EvictionHandler evictionHandler;
+
+    private StripedCache<?, ?> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = assertInstanceOf(StripedCache.class, cacheManager.getCache(CacheConfig.CACHE_NAME));
+        cache.clear();
+    }
+
+    @Test
+    void whenCacheExceedsMaxSize_thenEntriesAreEvicted() {
+        for (int i = 0; i < 50; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, LocalDateTime.now()));
+        }
+
+        assertTrue(cache.estimatedSize() <= 5);
+        assertTrue(cache.getEvictionCount() >= 45);
+        verify(evictionHandler, timeout(5000).atLeastOnce()).handleEviction(any(CachedEntity.class));
+    }
+
+    @Test
+    void whenEntriesAreEvicted_thenTheyAreWrittenBackOnTheCacheExecutor() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> threads.add(Thread.currentThread().getName()))
+                .when(evictionHandler).handleEviction(any(CachedEntity.class));
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, LocalDateTime.now()));
+        }
+
+        verify(evictionHandler, timeout(5000).atLeastOnce()).handleEviction(any(CachedEntity.class));
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("cache-refresh-")), threads::toString);
+    }
+
+    @Test
+    void noCaffeineCacheIsRegistered() {
+        assertFalse(applicationContext.containsBean("caffeineCache"));
+    }
+
+    @Test
+    void whenCacheIsRead_thenCacheMetricsAreRecorded() {
+        double hits = meterRegistry.get("cache.gets").tag("cache", CacheConfig.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+
+        cache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        assertNotNull(cache.get("id1"));
+
+        assertEquals(hits + 1, meterRegistry.get("cache.gets").tag("cache", CacheConfig.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+}
@@ -0,0 +1,62 @@
+package com.exercise.caching.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.exercise.caching.config.CachedEntityHttpMessageConverter;
+import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.CachedEntityCodec;
+import com.exercise.caching.model.DataDeflater;
+import com.exercise.caching.service.CachingService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "USER")
+class CachingControllerBinaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.removeAll();
+    }
+
+    @Test
+    void whenBinaryBodyHoldsText_thenEntityIsAdded() throws Exception {
+        byte[] body = CachedEntityCodec.encode(new CachedEntity("binary1", "data1", null));
+
+        mockMvc.perform(post("/api/caching").contentType(CachedEntityHttpMessageConverter.MEDIA_TYPE).content(body))
+                .andExpect(status().isOk());
+
+        assertEquals("data1", cachingService.get("binary1").getData());
+    }
+
+    @Test
+    void whenBinaryBodyHoldsCompressedData_thenItIsRejectedAndNotStored() throws Exception {
+        CachedEntity entity = new CachedEntity("binary2", null, null);
+        byte[] corrupted = DataDeflater.deflate("abc".repeat(1000), 1);
+        corrupted[corrupted.length - 1] ^= 1;
+        entity.setDeflatedData(corrupted);
+
+        mockMvc.perform(post("/api/caching").contentType(CachedEntityHttpMessageConverter.MEDIA_TYPE)
+                        .content(CachedEntityCodec.encode(entity)))
+                .andExpect(status().isBadRequest());
+
+        assertThrows(EntityNotFoundException.class, () -> cachingService.get("binary2"));
+    }
+}
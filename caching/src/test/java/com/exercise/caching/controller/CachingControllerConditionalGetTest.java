@@ -0,0 +1,93 @@
+package com.exercise.caching.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.exercise.caching.config.CachedEntityHttpMessageConverter;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "USER")
+class CachingControllerConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.removeAll();
+    }
+
+    @Test
+    void whenIfNoneMatchIsTheCurrentETag_thenNotModifiedWithoutBody() throws Exception {
+        cachingService.add(new CachedEntity("etag1", "data1", LocalDateTime.now()));
+
+        String eTag = mockMvc.perform(get("/api/caching/etag1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value("data1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/caching/etag1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void whenEntityIsReplaced_thenOldETagNoLongerMatches() throws Exception {
+        cachingService.add(new CachedEntity("etag2", "data1", LocalDateTime.now()));
+        String eTag = mockMvc.perform(get("/api/caching/etag2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        cachingService.add(new CachedEntity("etag2", "data2", LocalDateTime.now()));
+
+        String newETag = mockMvc.perform(get("/api/caching/etag2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value("data2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+        assertEquals(newETag, mockMvc.perform(get("/api/caching/etag2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void whenEntityIsReloadedOrRequestedAsBinary_thenItsWeakETagStillMatches() throws Exception {
+        cachingService.add(new CachedEntity("etag3", "data1", LocalDateTime.now()));
+        String eTag = mockMvc.perform(get("/api/caching/etag3"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(eTag.startsWith("W/\""));
+
+        cachingService.evict(List.of("etag3"));
+
+        mockMvc.perform(get("/api/caching/etag3").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/caching/etag3").accept(CachedEntityHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+}
@@ -0,0 +1,78 @@
+package com.exercise.caching.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.exercise.caching.config.CachedEntityHttpMessageConverter;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+@SpringBootTest(properties = {"cache.response-bytes.enabled=true", "cache.response-bytes.gzip=true"})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "USER")
+class CachingControllerPreSerializedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.removeAll();
+    }
+
+    @Test
+    void whenEntityIsCached_thenItsJsonBytesAreWrittenAndReplacedOnAdd() throws Exception {
+        cachingService.add(new CachedEntity("bytes1", "data1", LocalDateTime.now()));
+        mockMvc.perform(get("/api/caching/bytes1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data").value("data1"));
+        String eTag = cachingService.get("bytes1").getEntityTag();
+
+        mockMvc.perform(get("/api/caching/bytes1").header(HttpHeaders.IF_NONE_MATCH, "\"" + eTag + "\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/caching/bytes1").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        cachingService.add(new CachedEntity("bytes1", "data2", LocalDateTime.now()));
+        mockMvc.perform(get("/api/caching/bytes1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value("data2"));
+    }
+
+    @Test
+    void whenBinaryMediaTypeIsAccepted_thenItIsStillNegotiated() throws Exception {
+        cachingService.add(new CachedEntity("bytes2", "data1", LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/caching/bytes2").accept(CachedEntityHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CachedEntityHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void whenAcceptHeaderIsMalformed_thenItIsLeftToContentNegotiation() throws Exception {
+        cachingService.add(new CachedEntity("bytes3", "data1", LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/caching/bytes3").header(HttpHeaders.ACCEPT, "not a media type"))
+                .andExpect(status().isNotAcceptable());
+    }
+}
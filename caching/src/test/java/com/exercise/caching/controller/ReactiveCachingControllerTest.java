@@ -0,0 +1,105 @@
+package com.exercise.caching.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.exercise.caching.model.BatchIdsRequest;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.exercise.caching.service.CachingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReactiveCachingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @MockitoBean
+    private CachingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.clear();
+    }
+
+    @Test
+    void whenGetEntity_thenItIsReturnedAsynchronously() throws Exception {
+        when(repository.findById("id1")).thenReturn(Optional.of(new CachedEntity("id1", "data1", LocalDateTime.now())));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/caching/id1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("id1"))
+                .andExpect(jsonPath("$.data").value("data1"));
+    }
+
+    @Test
+    void whenGetMissingEntity_thenNotFound() throws Exception {
+        when(repository.findById("missing")).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/caching/missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenStreamIds_thenOneJsonLinePerDistinctIdIsEmitted() throws Exception {
+        when(repository.findById("id1")).thenReturn(Optional.of(new CachedEntity("id1", "data1", LocalDateTime.now())));
+        when(repository.findById("id2")).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(post("/api/reactive/caching/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(new BatchIdsRequest(List.of("id1", "id2", "id1")))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = Arrays.stream(body.split("\n")).filter(line -> !line.isBlank()).toList();
+        assertEquals(2, lines.size());
+        assertEquals(1, lines.stream().filter(line -> line.contains("\"FOUND\"")).count());
+        assertEquals(1, lines.stream().filter(line -> line.contains("\"NOT_FOUND\"")).count());
+    }
+}
@@ -0,0 +1,110 @@
+package com.exercise.caching.metrics;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.exercise.caching.config.CacheConfig;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.service.CachingService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@WithMockUser(roles = {"USER", "ADMIN"})
+class MetricsTest {
+
+    private static final String URI = "/api/caching/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.removeAll();
+    }
+
+    @Test
+    void whenEntityIsLoaded_thenRepositoryAndRequestPhasesAreTimed() throws Exception {
+        cachingService.add(new CachedEntity("m1", "data1", LocalDateTime.now()));
+        cachingService.clear();
+        long findsBefore = repositoryCount("findById");
+        long requestsBefore = phaseCount("db");
+
+        mockMvc.perform(get("/api/caching/m1")).andExpect(status().isOk());
+
+        assertEquals(findsBefore + 1, repositoryCount("findById"));
+        assertEquals(requestsBefore + 1, phaseCount("db"));
+        assertTrue(meterRegistry.get(RequestPhaseMetrics.METRIC_NAME).tag("uri", URI).tag("phase", "db")
+                .timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(requestsBefore + 1, phaseCount("cache"));
+        assertEquals(requestsBefore + 1, phaseCount("serialization"));
+    }
+
+    @Test
+    void cacheStatsAndRemovalsByCauseArePublished() {
+        cachingService.add(new CachedEntity("m2", "data2", LocalDateTime.now()));
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", CacheConfig.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count();
+        double explicitBefore = removals("explicit");
+
+        cachingService.get("m2");
+        cachingService.remove("m2");
+
+        assertEquals(hitsBefore + 1, meterRegistry.get("cache.gets").tag("cache", CacheConfig.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        await().atMost(Duration.ofSeconds(5)).until(() -> removals("explicit") == explicitBefore + 1);
+    }
+
+    @Test
+    void metricsAreExposedForPrometheus() throws Exception {
+        cachingService.add(new CachedEntity("m3", "data3", LocalDateTime.now()));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(Matchers.containsString("cache_gets_total{cache=\"cacheEntity\"")))
+                .andExpect(content().string(Matchers.containsString("cache_repository_seconds_bucket{")))
+                .andExpect(content().string(Matchers.containsString("cache_removals_total{")));
+    }
+
+    private long repositoryCount(String method) {
+        Timer timer = meterRegistry.find(RepositoryMetricsAspect.METRIC_NAME).tag("method", method).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private long phaseCount(String phase) {
+        Timer timer = meterRegistry.find(RequestPhaseMetrics.METRIC_NAME).tag("uri", URI).tag("phase", phase).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double removals(String cause) {
+        return meterRegistry.get("cache.removals").tag("cache", CacheConfig.CACHE_NAME).tag("cause", cause)
+                .counter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.exercise.caching.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class CachedEntityCodecTest {
+
+    @Test
+    void whenEncoded_thenDecodesToEqualEntity() {
+        CachedEntity entity = new CachedEntity("id-é", "däta 漢字", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+
+        assertEquals(entity, CachedEntityCodec.decode(CachedEntityCodec.encode(entity)));
+    }
+
+    @Test
+    void whenEntityHasTtl_thenItRoundTrips() {
+        CachedEntity entity = new CachedEntity("id1", "data1", null);
+        entity.setTtlSeconds(3600L);
+
+        assertEquals(3600L, CachedEntityCodec.decode(CachedEntityCodec.encode(entity)).getTtlSeconds());
+    }
+
+    @Test
+    void whenEncodedWithVersionOne_thenDecodesWithoutTtl() {
+        byte[] current = CachedEntityCodec.encode(new CachedEntity("id1", "data1", null));
+        byte[] versionOne = Arrays.copyOf(current, current.length - Long.BYTES);
+        versionOne[0] = 1;
+
+        assertEquals(new CachedEntity("id1", "data1", null), CachedEntityCodec.decode(versionOne));
+    }
+
+    @Test
+    void whenDataIsCompressed_thenItStaysCompressedExceptForClients() {
+        String data = "compressible ".repeat(100);
+        CachedEntity entity = new CachedEntity("id1", null, null);
+        entity.setDeflatedData(DataDeflater.deflate(data, 1));
+
+        byte[] encoded = CachedEntityCodec.encode(entity);
+        CachedEntity decoded = CachedEntityCodec.decode(encoded);
+        byte[] inflated = CachedEntityCodec.encodeInflated(entity);
+
+        assertEquals(CachedEntityCodec.VERSION_DEFLATED, encoded[0]);
+        assertTrue(decoded.isCompressed());
+        assertEquals(data, decoded.getData());
+        assertEquals(CachedEntityCodec.VERSION, inflated[0]);
+        assertEquals(new CachedEntity("id1", data, null), CachedEntityCodec.decode(inflated));
+    }
+
+    @Test
+    void whenFieldsAreNull_thenNullsRoundTrip() {
+        CachedEntity entity = new CachedEntity("id1", null, null);
+
+        assertEquals(entity, CachedEntityCodec.decode(CachedEntityCodec.encode(entity)));
+    }
+
+    @Test
+    void whenAccessTimeHasNanos_thenItIsTruncatedToMillis() {
+        LocalDateTime accessedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_789);
+
+        CachedEntity decoded = CachedEntityCodec.decode(CachedEntityCodec.encode(new CachedEntity("id1", "data", accessedAt)));
+
+        assertEquals(accessedAt.truncatedTo(ChronoUnit.MILLIS), decoded.getCacheAccessedTime());
+    }
+
+    @Test
+    void whenDecodedFromDirectBuffer_thenPositionEndsAfterEntity() {
+        byte[] first = CachedEntityCodec.encode(new CachedEntity("id1", "data1", null));
+        byte[] second = CachedEntityCodec.encode(new CachedEntity("id2", "data2", null));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(first.length + second.length);
+        buffer.put(first).put(second).flip();
+
+        assertEquals("id1", CachedEntityCodec.decode(buffer).getId());
+        assertEquals("id2", CachedEntityCodec.decode(buffer).getId());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void whenVersionIsUnknownOrBytesTruncated_thenDecodeFails() {
+        byte[] bytes = CachedEntityCodec.encode(new CachedEntity("id1", "data1", null));
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> CachedEntityCodec.decode(otherVersion));
+        assertThrows(IllegalArgumentException.class, () -> CachedEntityCodec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test
+    void encodingIsSmallerThanJavaSerialization() throws IOException {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(entity);
+        }
+
+        assertTrue(CachedEntityCodec.encode(entity).length * 4 < serialized.size());
+    }
+}
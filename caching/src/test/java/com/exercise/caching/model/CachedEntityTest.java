@@ -32,4 +32,47 @@ public class CachedEntityTest {
        
     }
 
+    @Test
+    void testEntityTagIsKeptUntilTheEntityChanges() {
+        CachedEntity entity = new CachedEntity("test-id", "test-data", LocalDateTime.now());
+        String tag = entity.getEntityTag();
+
+        assertSame(tag, entity.getEntityTag());
+        assertEquals(tag, new CachedEntity("test-id", "test-data", entity.getCacheAccessedTime()).getEntityTag());
+
+        entity.setData("other-data");
+        assertNotEquals(tag, entity.getEntityTag());
+        entity.setData("test-data");
+        assertEquals(tag, entity.getEntityTag());
+        entity.setId("other-id");
+        assertNotEquals(tag, entity.getEntityTag());
+    }
+
+    @Test
+    void testEntityTagCoversOnlyIdAndData() {
+        CachedEntity entity = new CachedEntity("test-id", "test-data", LocalDateTime.now());
+        String tag = entity.getEntityTag();
+
+        entity.setTtlSeconds(60L);
+        entity.setCacheAccessedTime(LocalDateTime.now().plusMinutes(1));
+        assertEquals(tag, entity.getEntityTag());
+        // The boundary between id and data is part of the tag
+        assertNotEquals(tag, new CachedEntity("test-i", "dtest-data", null).getEntityTag());
+    }
+
+    @Test
+    void testEqualsHashCodeAndToStringDoNotInflateCompressedData() {
+        byte[] corrupted = DataDeflater.deflate("abc".repeat(1000), 1);
+        corrupted[corrupted.length - 1] ^= 1;
+        CachedEntity entity = new CachedEntity("test-id", null, null);
+        entity.setDeflatedData(corrupted);
+        CachedEntity copy = new CachedEntity("test-id", null, null);
+        copy.setDeflatedData(corrupted.clone());
+
+        assertEquals(entity, copy);
+        assertEquals(entity.hashCode(), copy.hashCode());
+        assertTrue(entity.toString().contains("data=<" + corrupted.length + " bytes deflated>"));
+        assertThrows(IllegalArgumentException.class, entity::getData);
+    }
+
 }
@@ -5,15 +5,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.exercise.caching.exception.DBException;
 import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.DataDeflater;
 
 @SpringBootTest
 public class CachingRepositoryTest {
@@ -21,6 +30,9 @@ public class CachingRepositoryTest {
 	@Autowired
     private CachingRepository repository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void testSaveAndFindById() {
         // Given
@@ -90,6 +102,173 @@ public class CachingRepositoryTest {
         assertFalse(repository.findById("id1").isPresent());
     }
 
+    @Test
+    void testExistsById() {
+        // Given
+        repository.save(CachedEntity.builder()
+                .id("exists-id")
+                .data("data")
+                .cacheAccessedTime(LocalDateTime.now())
+                .build());
+
+        // When/Then
+        assertTrue(repository.existsById("exists-id"));
+        assertFalse(repository.existsById("missing-id"));
+    }
+
+    @Test
+    void testForEachMostRecentlyAccessed() {
+        // Given
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            repository.save(CachedEntity.builder()
+                    .id("recent-" + i)
+                    .data("data")
+                    .cacheAccessedTime(now.minusMinutes(i))
+                    .build());
+        }
+
+        // When
+        List<String> ids = new ArrayList<>();
+        repository.forEachMostRecentlyAccessed(3, 2, entity -> ids.add(entity.getId()));
+
+        // Then
+        assertEquals(List.of("recent-0", "recent-1", "recent-2"), ids);
+    }
+
+    @Test
+    void testTtlIsStoredAndExpiredRowsAreNotServed() {
+        // Given
+        repository.save(CachedEntity.builder().id("ttl-live").data("data").ttlSeconds(3600L).build());
+        repository.save(CachedEntity.builder().id("ttl-none").data("data").build());
+        repository.save(CachedEntity.builder().id("ttl-expired").data("data").ttlSeconds(60L).build());
+        jdbcTemplate.update("UPDATE cached_entities SET expires_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), "ttl-expired");
+
+        // When/Then
+        long remaining = repository.findById("ttl-live").get().getTtlSeconds();
+        assertTrue(remaining > 3590 && remaining <= 3600);
+        assertEquals(null, repository.findById("ttl-none").get().getTtlSeconds());
+        assertFalse(repository.findById("ttl-expired").isPresent());
+        assertEquals(List.of("ttl-live"), repository.findAllById(List.of("ttl-live", "ttl-expired")).stream()
+                .map(CachedEntity::getId).toList());
+        assertTrue(repository.existsById("ttl-expired"));
+    }
+
+    @Test
+    void testSavingALoadedEntityKeepsItsExpiry() {
+        // Given
+        CachedEntity entity = CachedEntity.builder().id("ttl-resaved").data("data").ttlSeconds(3600L).build();
+        entity.startTtl(System.currentTimeMillis() - 3_000_000L);
+        repository.save(entity);
+        Timestamp expiresAt = jdbcTemplate.queryForObject("SELECT expires_at FROM cached_entities WHERE id = ?",
+                Timestamp.class, "ttl-resaved");
+
+        // When
+        CachedEntity loaded = repository.findById("ttl-resaved").get();
+        repository.save(loaded);
+
+        // Then
+        assertEquals(expiresAt.getTime(), loaded.getExpiresAt());
+        assertEquals(expiresAt, jdbcTemplate.queryForObject("SELECT expires_at FROM cached_entities WHERE id = ?",
+                Timestamp.class, "ttl-resaved"));
+        assertTrue(loaded.getTtlSeconds() <= 600);
+    }
+
+    @Test
+    void testWriteBackDoesNotMoveLastAccessedBackwards() {
+        // Given
+        LocalDateTime cachedAt = LocalDateTime.now().withNano(0).minusMinutes(1);
+        LocalDateTime hitAt = cachedAt.plusSeconds(30);
+        CachedEntity entity = CachedEntity.builder().id("write-back").data("data").cacheAccessedTime(cachedAt).build();
+        repository.save(entity);
+        repository.updateAccessTimes(Map.of("write-back", Timestamp.valueOf(hitAt).getTime()));
+
+        // When
+        entity.setData("updated");
+        repository.save(entity);
+
+        // Then
+        assertEquals(Timestamp.valueOf(hitAt), jdbcTemplate.queryForObject(
+                "SELECT last_accessed FROM cached_entities WHERE id = ?", Timestamp.class, "write-back"));
+        assertEquals("updated", repository.findById("write-back").get().getData());
+    }
+
+    @Test
+    void testCompressedDataIsStoredAndLoadedCompressed() {
+        // Given
+        String data = "compressible ".repeat(500);
+        CachedEntity entity = CachedEntity.builder().id("deflated").build();
+        entity.setDeflatedData(DataDeflater.deflate(data, 1));
+
+        // When
+        repository.save(entity);
+
+        // Then
+        CachedEntity found = repository.findById("deflated").get();
+        assertTrue(found.isCompressed());
+        assertEquals(data, found.getData());
+        assertEquals(null, jdbcTemplate.queryForObject("SELECT data FROM cached_entities WHERE id = ?", String.class, "deflated"));
+    }
+
+    @Test
+    void testDataLongerThanTheOriginalColumnIsStoredAsText() {
+        // Given
+        String data = "uncompressed ".repeat(1000);
+        CachedEntity entity = CachedEntity.builder().id("long-text").data(data).build();
+
+        // When
+        repository.save(entity);
+
+        // Then
+        CachedEntity found = repository.findById("long-text").get();
+        assertFalse(found.isCompressed());
+        assertEquals(data, found.getData());
+    }
+
+    @Test
+    void testDeleteExpiredAndNotAccessedSinceInChunks() {
+        // Given
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            repository.save(CachedEntity.builder().id("expired-" + i).data("data").cacheAccessedTime(now).ttlSeconds(60L).build());
+            repository.save(CachedEntity.builder().id("stale-" + i).data("data").cacheAccessedTime(now.minusDays(10)).build());
+        }
+        repository.save(CachedEntity.builder().id("kept").data("data").cacheAccessedTime(now).ttlSeconds(3600L).build());
+        long later = System.currentTimeMillis() + 120_000;
+
+        // When/Then
+        List<String> first = repository.deleteExpired(later, 2);
+        List<String> second = repository.deleteExpired(later, 2);
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(Set.of("expired-0", "expired-1", "expired-2"),
+                Stream.concat(first.stream(), second.stream()).collect(Collectors.toSet()));
+        assertEquals(List.of(), repository.deleteExpired(later, 2));
+        assertEquals(3, repository.deleteNotAccessedSince(now.minusDays(1), 5).size());
+        assertTrue(repository.existsById("kept"));
+        assertEquals(1, repository.deleteAll());
+    }
+
+    @Test
+    void testRowsNeverAccessedAreSweptByTheirAge() {
+        // Given
+        repository.save(CachedEntity.builder().id("never-accessed").data("data").build());
+        jdbcTemplate.update("UPDATE cached_entities SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(10)), "never-accessed");
+        repository.save(CachedEntity.builder().id("never-accessed-new").data("data").build());
+
+        // When
+        List<String> deleted = repository.deleteNotAccessedSince(LocalDateTime.now().minusDays(1), 100);
+
+        // Then
+        assertTrue(deleted.contains("never-accessed"));
+        assertFalse(deleted.contains("never-accessed-new"));
+        assertTrue(repository.existsById("never-accessed-new"));
+    }
+
     @Test
     void testSaveInvalidEntity() {
         // Given
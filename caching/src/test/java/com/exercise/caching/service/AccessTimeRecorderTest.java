@@ -0,0 +1,171 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.exercise.caching.exception.DBException;
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AccessTimeRecorderTest {
+
+    private CachingRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private AccessTimeRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CachingRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new AccessTimeRecorder(repository, meterRegistry, 60_000, 3, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSameIdRecordedTwice_thenLatestTimestampIsFlushedOnce() {
+        recorder.record("id1", 1_000L);
+        recorder.record("id1", 3_000L);
+        recorder.record("id2", 2_000L);
+
+        recorder.flush();
+
+        ArgumentCaptor<Map<String, Long>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(repository).updateAccessTimes(batch.capture());
+        assertEquals(Map.of("id1", 3_000L, "id2", 2_000L), batch.getValue());
+        assertEquals(3, recorder.getBufferedCount());
+        assertEquals(2, recorder.getFlushedCount());
+        assertEquals(0, recorder.getPendingCount());
+    }
+
+    @Test
+    void whenIdIsAccessedAgainAfterFlush_thenOnlyTheNewAccessIsFlushed() {
+        recorder.record("id1", 1_000L);
+        recorder.flush();
+        recorder.flush();
+        recorder.record("id1", 2_000L);
+
+        recorder.flush();
+
+        verify(repository).updateAccessTimes(Map.of("id1", 1_000L));
+        verify(repository).updateAccessTimes(Map.of("id1", 2_000L));
+        assertEquals(0, recorder.getPendingCount());
+    }
+
+    @Test
+    void whenBatchSizeReached_thenFlushIsTriggeredInBackground() {
+        recorder.start();
+
+        recorder.record("id1");
+        recorder.record("id2");
+        recorder.record("id3");
+
+        verify(repository, timeout(5000)).updateAccessTimes(anyMap());
+    }
+
+    @Test
+    void whenBufferIsFull_thenNewIdsAreDropped() {
+        // Batch size above the buffer limit, so no background flush drains the buffer meanwhile
+        recorder.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new AccessTimeRecorder(repository, meterRegistry, 60_000, 100, 4);
+        for (int i = 0; i < 6; i++) {
+            recorder.record("id" + i, i);
+        }
+
+        assertEquals(4, recorder.getPendingCount());
+        assertEquals(2, recorder.getDroppedCount());
+        assertEquals(2.0, meterRegistry.get("cache.access.records").tag("state", "dropped").functionCounter().count());
+    }
+
+    @Test
+    void whenFlushFails_thenRecordsAreCountedAsDropped() {
+        doThrow(new DBException("Failed to update access times", null)).when(repository).updateAccessTimes(anyMap());
+        recorder.record("id1", 1_000L);
+
+        recorder.flush();
+
+        assertEquals(1, recorder.getDroppedCount());
+        assertEquals(0, recorder.getFlushedCount());
+    }
+
+    @Test
+    void whenShutDown_thenPendingRecordsAreFlushed() {
+        recorder.start();
+        recorder.record("id1", 1_000L);
+        verify(repository, never()).updateAccessTimes(anyMap());
+
+        recorder.shutdown();
+
+        verify(repository).updateAccessTimes(Map.of("id1", 1_000L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenRecordsRaceWithFlushes_thenNoAccessIsLostAndNothingStaysPending() throws Exception {
+        recorder.shutdown();
+        recorder = new AccessTimeRecorder(repository, meterRegistry, 60_000, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        ConcurrentHashMap<String, Long> recorded = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, Long> persisted = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            ((Map<String, Long>) invocation.getArgument(0)).forEach((id, time) -> persisted.merge(id, time, Math::max));
+            return null;
+        }).when(repository).updateAccessTimes(anyMap());
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean recording = new AtomicBoolean(true);
+        List<Future<?>> recorders = new ArrayList<>();
+
+        Future<?> flusher = executor.submit(() -> {
+            while (recording.get()) {
+                recorder.flush();
+            }
+        });
+        for (int t = 0; t < 4; t++) {
+            recorders.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (long time = 1; time <= 50_000; time++) {
+                    String id = "id" + random.nextInt(8);
+                    recorder.record(id, time);
+                    recorded.merge(id, time, Math::max);
+                }
+            }));
+        }
+        for (Future<?> future : recorders) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        recording.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        recorder.flush();
+
+        assertEquals(0, recorder.getPendingCount());
+        assertEquals(recorded, persisted);
+    }
+}
@@ -0,0 +1,161 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private AtomicLong ticker;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("snapshot.bin");
+        ticker = new AtomicLong();
+    }
+
+    private Cache<String, CachedEntity> newCache(int maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .ticker(ticker::get)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private CacheSnapshotter snapshotter(Cache<String, CachedEntity> cache) {
+        return new CacheSnapshotter(Optional.of(cache), new SimpleMeterRegistry(), true, file.toString());
+    }
+
+    @Test
+    void whenSnapshotIsSavedAndLoaded_thenEntriesAreRestored() {
+        Cache<String, CachedEntity> cache = newCache(100);
+        LocalDateTime accessedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 10; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, accessedAt));
+        }
+
+        assertEquals(10, snapshotter(cache).save(System.currentTimeMillis()));
+
+        Cache<String, CachedEntity> restored = newCache(100);
+        assertEquals(10, snapshotter(restored).load(System.currentTimeMillis()));
+        assertEquals(new CachedEntity("id3", "data3", accessedAt), restored.getIfPresent("id3"));
+        assertEquals(10, restored.estimatedSize());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void whenEntryExpiresBeforeLoad_thenItIsSkipped() {
+        Cache<String, CachedEntity> cache = newCache(100);
+        cache.put("old", new CachedEntity("old", "data", LocalDateTime.now()));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(9));
+        cache.put("new", new CachedEntity("new", "data", LocalDateTime.now()));
+        long now = System.currentTimeMillis();
+        snapshotter(cache).save(now);
+
+        Cache<String, CachedEntity> restored = newCache(100);
+        snapshotter(restored).load(now + TimeUnit.MINUTES.toMillis(5));
+
+        assertNull(restored.getIfPresent("old"));
+        assertEquals("data", restored.getIfPresent("new").getData());
+    }
+
+    @Test
+    void whenEntriesHaveTheirOwnTtl_thenRemainingLifetimeIsRestored() {
+        Cache<String, CachedEntity> cache = newVariableCache();
+        CachedEntity shortLived = new CachedEntity("short", "data", null);
+        shortLived.setTtlSeconds(60L);
+        cache.put("short", shortLived);
+        cache.put("default", new CachedEntity("default", "data", null));
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        long now = System.currentTimeMillis();
+        snapshotter(cache).save(now);
+
+        Cache<String, CachedEntity> restored = newVariableCache();
+        snapshotter(restored).load(now);
+
+        assertEquals(Duration.ofSeconds(40), restored.policy().expireVariably().get().getExpiresAfter("short").get());
+        assertEquals(Duration.ofMinutes(10).minusSeconds(20),
+                restored.policy().expireVariably().get().getExpiresAfter("default").get());
+        assertEquals(60L, restored.getIfPresent("short").getTtlSeconds());
+    }
+
+    private Cache<String, CachedEntity> newVariableCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfter(new CachedEntityExpiry(Duration.ofMinutes(10)))
+                .ticker(ticker::get)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Test
+    void whenSnapshotIsCorrupted_thenItIsDiscarded() throws IOException {
+        Cache<String, CachedEntity> cache = newCache(100);
+        cache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        snapshotter(cache).save(System.currentTimeMillis());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        Cache<String, CachedEntity> restored = newCache(100);
+
+        assertEquals(0, snapshotter(restored).load(System.currentTimeMillis()));
+        assertEquals(0, restored.estimatedSize());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void whenCacheIsSmallerThanSnapshot_thenOnlyHottestEntriesAreLoaded() {
+        Cache<String, CachedEntity> cache = newCache(20);
+        for (int i = 0; i < 20; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "data" + i, LocalDateTime.now()));
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.getIfPresent("id7");
+        }
+        snapshotter(cache).save(System.currentTimeMillis());
+
+        Cache<String, CachedEntity> restored = newCache(5);
+
+        assertEquals(5, snapshotter(restored).load(System.currentTimeMillis()));
+        assertTrue(restored.asMap().containsKey("id7"));
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsWritten() {
+        Cache<String, CachedEntity> cache = newCache(100);
+        cache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        CacheSnapshotter snapshotter = new CacheSnapshotter(Optional.of(cache), new SimpleMeterRegistry(), false, file.toString());
+
+        snapshotter.start();
+        snapshotter.stop();
+
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,168 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import com.exercise.caching.exception.DBException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CacheWarmerTest {
+
+    private CachingRepository repository;
+    private Cache<String, CachedEntity> cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CachingRepository.class);
+        cache = Caffeine.newBuilder().maximumSize(50).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamRows(CachedEntity... rows) {
+        doAnswer(invocation -> {
+            Consumer<CachedEntity> action = invocation.getArgument(2);
+            for (CachedEntity row : rows) {
+                action.accept(row);
+            }
+            return null;
+        }).when(repository).forEachMostRecentlyAccessed(anyInt(), anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void whenWarmupCompletes_thenRowsAreCachedAndHealthIsUp() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 1000, 100);
+        streamRows(new CachedEntity("id1", "data1", LocalDateTime.now()),
+                new CachedEntity("id2", "data2", LocalDateTime.now()));
+        assertEquals(Status.OUT_OF_SERVICE, warmer.health().getStatus());
+
+        warmer.warmUp();
+
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertEquals(2, warmer.getLoadedCount());
+        assertEquals("data2", cache.getIfPresent("id2").getData());
+        // Limited to the cache's maximum size
+        verify(repository).forEachMostRecentlyAccessed(eq(50), eq(100), any());
+    }
+
+    @Test
+    void whenCacheIsBoundedByWeight_thenWarmupStopsAtTheWeightLeft() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(3 * CachedEntityWeigher.estimate(new CachedEntity("id0", "data", null)))
+                .weigher(new CachedEntityWeigher())
+                .build();
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 1000, 100);
+        CachedEntity[] rows = new CachedEntity[5];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new CachedEntity("id" + i, "data", null);
+        }
+        streamRows(rows);
+
+        warmer.warmUp();
+
+        assertEquals(3, warmer.getLoadedCount());
+        assertEquals("data", cache.getIfPresent("id0").getData());
+        // Limited by cache.warmup.size only, as the number of entries that fit is not known
+        verify(repository).forEachMostRecentlyAccessed(eq(1000), eq(100), any());
+    }
+
+    @Test
+    void whenEntityIsAlreadyCached_thenItIsNotReplaced() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 10, 100);
+        cache.put("id1", new CachedEntity("id1", "newer", LocalDateTime.now()));
+        streamRows(new CachedEntity("id1", "older", LocalDateTime.now()));
+
+        warmer.warmUp();
+
+        assertEquals("newer", cache.getIfPresent("id1").getData());
+        assertEquals(0, warmer.getLoadedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenEntityIsRemovedAfterItsRowWasRead_thenItIsNotResurrected() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 10, 100);
+        CachedEntity removed = new CachedEntity("id1", "data1", LocalDateTime.now());
+        doAnswer(invocation -> {
+            Consumer<CachedEntity> action = invocation.getArgument(2);
+            // The row has been read when CachingService.remove deletes it and evicts the ID
+            warmer.invalidate("id1");
+            cache.invalidate("id1");
+            action.accept(removed);
+            action.accept(new CachedEntity("id2", "data2", LocalDateTime.now()));
+            return null;
+        }).when(repository).forEachMostRecentlyAccessed(anyInt(), anyInt(), any(Consumer.class));
+
+        warmer.warmUp();
+
+        assertNull(cache.getIfPresent("id1"));
+        assertEquals("data2", cache.getIfPresent("id2").getData());
+        assertEquals(1, warmer.getLoadedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCacheIsClearedDuringWarmup_thenLoadingStops() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 10, 100);
+        doAnswer(invocation -> {
+            Consumer<CachedEntity> action = invocation.getArgument(2);
+            action.accept(new CachedEntity("id1", "data1", LocalDateTime.now()));
+            warmer.invalidateAll();
+            cache.invalidateAll();
+            action.accept(new CachedEntity("id2", "data2", LocalDateTime.now()));
+            action.accept(new CachedEntity("id3", "data3", LocalDateTime.now()));
+            return null;
+        }).when(repository).forEachMostRecentlyAccessed(anyInt(), anyInt(), any(Consumer.class));
+
+        warmer.warmUp();
+
+        assertEquals(0, cache.estimatedSize());
+        assertTrue(warmer.isWarm());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenWarmupFails_thenInstanceStillBecomesReady() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), true, 10, 100);
+        doThrow(new DBException("Failed to stream most recently accessed entities", null))
+                .when(repository).forEachMostRecentlyAccessed(anyInt(), anyInt(), any(Consumer.class));
+
+        warmer.warmUp();
+
+        assertTrue(warmer.isWarm());
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertTrue(warmer.health().getDetails().containsKey("error"));
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsLoadedAndHealthIsUp() {
+        CacheWarmer warmer = new CacheWarmer(repository, Optional.of(cache), false, 10, 100);
+
+        warmer.start();
+        warmer.stop();
+
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertFalse(warmer.health().getDetails().containsKey("loaded"));
+        verify(repository, never()).forEachMostRecentlyAccessed(anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,136 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.exception.DBException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachedEntityCacheLoaderTest {
+
+    private CachingRepository repository;
+    private AccessTimeRecorder accessTimeRecorder;
+    private WriteBehindWriter writeBehindWriter;
+    private SimpleMeterRegistry meterRegistry;
+    private NegativeCache negativeCache;
+    private CachedEntityCacheLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CachingRepository.class);
+        accessTimeRecorder = mock(AccessTimeRecorder.class);
+        writeBehindWriter = mock(WriteBehindWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+        negativeCache = new NegativeCache(meterRegistry, true, 100, 60);
+        loader = new CachedEntityCacheLoader(repository, accessTimeRecorder, Optional.of(writeBehindWriter),
+                negativeCache,
+                new OffHeapStore(meterRegistry, false, 0, ""), meterRegistry);
+    }
+
+    @Test
+    void whenEntityExists_thenLoadReturnsItAndRecordsAccess() {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now().minusDays(1));
+        when(repository.findById("id1")).thenReturn(Optional.of(entity));
+
+        assertSame(entity, loader.load("id1"));
+        verify(accessTimeRecorder).record("id1");
+    }
+
+    @Test
+    void whenEntityIsMissing_thenLoadReturnsNull() {
+        when(repository.findById("id1")).thenReturn(Optional.empty());
+
+        assertNull(loader.load("id1"));
+    }
+
+    @Test
+    void whenEntityIsKnownAbsent_thenDatabaseIsNotQueriedAgain() {
+        when(repository.findById("id1")).thenReturn(Optional.empty());
+
+        assertNull(loader.load("id1"));
+        assertNull(loader.load("id1"));
+        assertEquals(Map.of(), loader.loadAll(Set.of("id1")));
+
+        verify(repository).findById("id1");
+        verify(repository, never()).findAllById(List.of("id1"));
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", NegativeCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void whenEntityIsAddedWhileItIsLoaded_thenItIsNotMarkedAbsent() {
+        // The add commits after the query has missed, and invalidates the ID afterwards
+        when(repository.findById("id1")).thenAnswer(invocation -> {
+            negativeCache.invalidate("id1");
+            return Optional.empty();
+        });
+        when(repository.findAllById(List.of("id2"))).thenAnswer(invocation -> {
+            negativeCache.invalidate("id2");
+            return List.of();
+        });
+
+        assertNull(loader.load("id1"));
+        assertEquals(Map.of(), loader.loadAll(Set.of("id2")));
+
+        assertFalse(negativeCache.isKnownAbsent("id1"));
+        assertFalse(negativeCache.isKnownAbsent("id2"));
+    }
+
+    @Test
+    void whenWriteIsPending_thenLoadSkipsDatabase() {
+        CachedEntity pending = new CachedEntity("id1", "pending", LocalDateTime.now());
+        when(writeBehindWriter.getPending("id1")).thenReturn(pending);
+
+        assertSame(pending, loader.load("id1"));
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void whenLoadingSeveralEntities_thenOneInListQueryIsUsed() {
+        CachedEntity first = new CachedEntity("id1", "data1", LocalDateTime.now());
+        when(repository.findAllById(List.of("id1"))).thenReturn(List.of(first));
+
+        Map<String, CachedEntity> loaded = loader.loadAll(Set.of("id1"));
+
+        assertEquals(Map.of("id1", first), loaded);
+        verify(repository).findAllById(List.of("id1"));
+    }
+
+    @Test
+    void whenReloadSucceeds_thenRefreshIsCounted() {
+        CachedEntity fresh = new CachedEntity("id1", "fresh", LocalDateTime.now());
+        when(repository.findById("id1")).thenReturn(Optional.of(fresh));
+
+        assertSame(fresh, loader.reload("id1", new CachedEntity("id1", "stale", LocalDateTime.now())));
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("result", "success").counter().count());
+        verify(accessTimeRecorder, never()).record("id1");
+    }
+
+    @Test
+    void whenReloadFails_thenFailureIsCounted() {
+        when(repository.findById("id1")).thenThrow(new DBException("Failed to find entity", null));
+
+        assertThrows(DBException.class, () -> loader.reload("id1", new CachedEntity("id1", "stale", LocalDateTime.now())));
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("result", "failure").counter().count());
+    }
+}
@@ -0,0 +1,102 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CachedEntityExpiryTest {
+
+    private AtomicLong ticker;
+    private Cache<String, CachedEntity> cache;
+
+    @BeforeEach
+    void setUp() {
+        ticker = new AtomicLong();
+        cache = Caffeine.newBuilder()
+                .expireAfter(new CachedEntityExpiry(Duration.ofMinutes(10)))
+                .ticker(ticker::get)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private static CachedEntity entity(String id, Long ttlSeconds) {
+        CachedEntity entity = new CachedEntity(id, "data", null);
+        entity.setTtlSeconds(ttlSeconds);
+        return entity;
+    }
+
+    @Test
+    void whenEntityHasTtl_thenItExpiresIndependentlyOfTheDefault() {
+        cache.put("short", entity("short", 5L));
+        cache.put("long", entity("long", 3600L));
+        cache.put("default", entity("default", null));
+
+        advance(Duration.ofSeconds(6));
+        assertNull(cache.getIfPresent("short"));
+        assertNotNull(cache.getIfPresent("default"));
+
+        advance(Duration.ofMinutes(10));
+        assertNull(cache.getIfPresent("default"));
+        assertNotNull(cache.getIfPresent("long"));
+    }
+
+    @Test
+    void whenEntityIsReadOrRewritten_thenOnlyTheWriteRestartsItsLifetime() {
+        cache.put("id1", entity("id1", 10L));
+        advance(Duration.ofSeconds(8));
+        cache.getIfPresent("id1");
+        advance(Duration.ofSeconds(3));
+        assertNull(cache.getIfPresent("id1"));
+
+        cache.put("id2", entity("id2", 10L));
+        advance(Duration.ofSeconds(8));
+        cache.put("id2", entity("id2", 10L));
+        advance(Duration.ofSeconds(8));
+        assertNotNull(cache.getIfPresent("id2"));
+    }
+
+    @Test
+    void whenEntityHasAFixedExpiry_thenItExpiresThenWhateverItsTtl() {
+        CachedEntity promoted = entity("id1", 3600L);
+        promoted.setExpiresAt(System.currentTimeMillis() + 5_000);
+        cache.put("id1", promoted);
+        CachedEntity expired = entity("id2", 3600L);
+        expired.setExpiresAt(System.currentTimeMillis() - 1);
+        cache.put("id2", expired);
+
+        assertNull(cache.getIfPresent("id2"));
+        assertNotNull(cache.getIfPresent("id1"));
+        advance(Duration.ofSeconds(6));
+        assertNull(cache.getIfPresent("id1"));
+    }
+
+    @Test
+    void whenEntityIsPromotedWithADeadline_thenItExpiresThenInsteadOfAfterTheDefault() {
+        long now = System.currentTimeMillis();
+        CachedEntity cached = entity("id1", null);
+        cache.put("id1", cached);
+        CachedEntity promoted = entity("id2", null);
+        promoted.setCacheExpiresAt(now + 5_000);
+        cache.put("id2", promoted);
+
+        assertTrue(cached.getCacheExpiresAt() >= now + Duration.ofMinutes(10).toMillis());
+        advance(Duration.ofSeconds(6));
+        assertNull(cache.getIfPresent("id2"));
+        assertNotNull(cache.getIfPresent("id1"));
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(TimeUnit.NANOSECONDS.convert(duration));
+    }
+}
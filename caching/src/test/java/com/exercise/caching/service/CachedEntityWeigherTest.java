@@ -0,0 +1,57 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CachedEntityWeigherTest {
+
+    @Test
+    void whenDataGrows_thenEstimateGrowsWithItsEncoding() {
+        CachedEntity small = new CachedEntity("id1", "x".repeat(96), LocalDateTime.now());
+        CachedEntity large = new CachedEntity("id1", "x".repeat(1096), LocalDateTime.now());
+        CachedEntity wide = new CachedEntity("id1", "€".repeat(96), LocalDateTime.now());
+
+        assertEquals(1000, CachedEntityWeigher.estimate(large) - CachedEntityWeigher.estimate(small));
+        // Characters outside Latin-1 take two bytes each
+        assertEquals(CachedEntityWeigher.estimate(small) + 96, CachedEntityWeigher.estimate(wide));
+        assertTrue(CachedEntityWeigher.estimate(small) > 200);
+    }
+
+    @Test
+    void whenCacheIsBoundedByWeight_thenLargeEntriesTakeMoreRoom() {
+        Cache<String, CachedEntity> cache = Caffeine.newBuilder()
+                .maximumWeight(20_000)
+                .weigher(new CachedEntityWeigher())
+                .executor(Runnable::run)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("id" + i, new CachedEntity("id" + i, "x".repeat(1000), null));
+        }
+
+        long weight = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(weight <= 20_000);
+        assertTrue(cache.estimatedSize() < 20);
+    }
+
+    @Test
+    void whenEntityFieldsChange_thenTheFixedEntitySizeCoversThem() {
+        // 12-byte header, 4 bytes per compressed reference or int, 8 per long
+        long fieldBytes = Arrays.stream(CachedEntity.class.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .mapToLong(field -> field.getType() == long.class || field.getType() == double.class ? 8 : 4)
+                .sum();
+
+        assertEquals(CachedEntityWeigher.ENTITY_BYTES, (12 + fieldBytes + 7) & ~7L);
+    }
+}
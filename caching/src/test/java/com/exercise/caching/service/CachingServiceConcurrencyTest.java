@@ -0,0 +1,122 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+
+@SpringBootTest
+class CachingServiceConcurrencyTest {
+
+    private static final int REQUESTS = 5000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private CachingService cachingService;
+
+    @MockitoBean
+    private CachingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        cachingService.clear();
+    }
+
+    @Test
+    void whenManyConcurrentMissesForOneKey_thenRepositoryIsCalledOnce() throws Exception {
+        // Given
+        String id = "hot-id";
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(new CachedEntity(id, "hot-data", LocalDateTime.now()));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CachedEntity>> results = new ArrayList<>(REQUESTS);
+
+        // When
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cachingService.get(id);
+            }));
+        }
+        start.countDown();
+        for (Future<CachedEntity> result : results) {
+            assertEquals("hot-data", result.get(30, TimeUnit.SECONDS).getData());
+        }
+        executor.shutdown();
+
+        // Then
+        verify(repository, times(1)).findById(id);
+    }
+
+    @Test
+    void whenMissesArriveWhileTheLoadIsInFlight_thenTheyWaitForItsResult() throws Exception {
+        // Given
+        String id = "in-flight-id";
+        CachedEntity loaded = new CachedEntity(id, "in-flight-data", LocalDateTime.now());
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(30, TimeUnit.SECONDS);
+            return Optional.of(loaded);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        Future<CachedEntity> first = executor.submit(() -> cachingService.get(id));
+        assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+
+        // When
+        CountDownLatch arrived = new CountDownLatch(THREADS - 1);
+        List<Future<CachedEntity>> waiters = new ArrayList<>(THREADS - 1);
+        for (int i = 1; i < THREADS; i++) {
+            waiters.add(executor.submit(() -> {
+                arrived.countDown();
+                return cachingService.get(id);
+            }));
+        }
+        assertTrue(arrived.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        // Then nothing is cached yet, so the waiters can only be blocked on the registered load
+        assertTrue(waiters.stream().noneMatch(Future::isDone));
+        releaseLoad.countDown();
+        assertSame(loaded, first.get(30, TimeUnit.SECONDS));
+        for (Future<CachedEntity> waiter : waiters) {
+            assertSame(loaded, waiter.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        verify(repository, times(1)).findById(id);
+    }
+
+    @Test
+    void whenKeyIsMissing_thenEntityNotFoundIsPropagated() {
+        when(repository.findById("missing-id")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> cachingService.get("missing-id"));
+    }
+}
@@ -1,39 +1,89 @@
 package com.exercise.caching.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.exception.ValidationException;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
 import com.exercise.caching.model.CachedEntity;
 import com.exercise.caching.repository.CachingRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @SpringBootTest
 public class CachingServiceTest {
 
 	@Mock
     private CachingRepository repository;
 
+    @Mock
+    private AccessTimeRecorder accessTimeRecorder;
+
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private CacheWarmer cacheWarmer;
+
     private CachingService cacheService;
 
+    private Cache entityCache;
+
+    private NegativeCache negativeCache;
+
+    private OffHeapStore offHeapStore;
+
+    private DataCompressor dataCompressor;
+
     @BeforeEach
     void setUp() {
-        cacheService = new CachingService(repository);
+        negativeCache = new NegativeCache(new SimpleMeterRegistry(), true, 100, 60);
+        offHeapStore = new OffHeapStore(new SimpleMeterRegistry(), true, 4096, "");
+        dataCompressor = new DataCompressor(new SimpleMeterRegistry(), true, 1024, 1);
+        entityCache = createEntityCache();
+        when(cacheManager.getCache("cacheEntity")).thenReturn(entityCache);
+        cacheService = new CachingService(repository, accessTimeRecorder, Optional.empty(), cacheManager, negativeCache, offHeapStore, TransactionOperations.withoutTransaction(), new SimpleMeterRegistry(), dataCompressor, cacheWarmer);
+    }
+
+    /**
+     * The first cache tier the service runs against, overridden to run these tests against another engine
+     */
+    protected Cache createEntityCache() {
+        return new ConcurrentMapCache("cacheEntity", false);
     }
 
 
@@ -56,4 +106,343 @@ public class CachingServiceTest {
         assertNotNull(found);
         assertEquals(id, found.getId());
     }
+
+    @Test
+    void testGetRecordsAccessWithoutSaving() {
+        // Given
+        String id = "test-id";
+        CachedEntity entity = new CachedEntity(id, "test-data", LocalDateTime.now().minusDays(1));
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+        // When
+        cacheService.get(id);
+
+        // Then
+        verify(accessTimeRecorder).record(id);
+        verify(repository, never()).save(any(CachedEntity.class));
+    }
+
+    @Test
+    void testCacheHitRecordsAccessWithoutLoading() {
+        // Given
+        String id = "cached-id";
+        CachedEntity cached = new CachedEntity(id, "cached-data", LocalDateTime.now());
+        entityCache.put(id, cached);
+
+        // When
+        CachedEntity found = cacheService.get(id);
+
+        // Then
+        assertEquals(cached, found);
+        verify(accessTimeRecorder).record(id);
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testCacheMissIsServedFromOffHeapTierBeforeDatabase() {
+        // Given
+        String id = "demoted-id";
+        offHeapStore.put(new CachedEntity(id, "demoted-data", LocalDateTime.now()));
+
+        // When
+        CachedEntity found = cacheService.get(id);
+
+        // Then
+        assertEquals("demoted-data", found.getData());
+        assertEquals(found, entityCache.get(id, CachedEntity.class));
+        assertFalse(offHeapStore.contains(id));
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testAddInvalidatesOffHeapCopy() {
+        offHeapStore.put(new CachedEntity("id1", "old-data", LocalDateTime.now()));
+
+        cacheService.add(new CachedEntity("id1", "new-data", null));
+
+        assertFalse(offHeapStore.contains("id1"));
+    }
+
+    @Test
+    void testEvictDropsEntitiesFromEveryTierButNotTheDatabase() {
+        entityCache.put("id1", new CachedEntity("id1", "cached-data", LocalDateTime.now()));
+        offHeapStore.put(new CachedEntity("id2", "demoted-data", LocalDateTime.now()));
+
+        cacheService.evict(List.of("id1", "id2"));
+
+        assertNull(entityCache.get("id1"));
+        assertFalse(offHeapStore.contains("id2"));
+        verify(cacheWarmer).invalidate("id1");
+        verify(repository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testRemoveDuringLoadIsNotUndoneByTheLoad() throws Exception {
+        // Given a load that has read the entity but not cached it yet
+        String id = "racing-id";
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch removed = new CountDownLatch(1);
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            loading.countDown();
+            removed.await(5, TimeUnit.SECONDS);
+            return Optional.of(new CachedEntity(id, "stale-data", LocalDateTime.now()));
+        });
+        when(repository.existsById(id)).thenReturn(true);
+        CompletableFuture<CachedEntity> load = CompletableFuture.supplyAsync(() -> cacheService.get(id));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        cacheService.remove(id);
+        removed.countDown();
+
+        // Then
+        assertEquals("stale-data", load.get(5, TimeUnit.SECONDS).getData());
+        assertNull(entityCache.get(id));
+    }
+
+    @Test
+    void testRemoveDuringBatchGetIsNotUndoneByTheBatch() throws Exception {
+        // Given a batch get that has read the entity but not cached it yet
+        String id = "racing-id";
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch removed = new CountDownLatch(1);
+        when(repository.findAllById(List.of(id))).thenAnswer(invocation -> {
+            loading.countDown();
+            removed.await(5, TimeUnit.SECONDS);
+            return List.of(new CachedEntity(id, "stale-data", LocalDateTime.now()));
+        });
+        when(repository.existsById(id)).thenReturn(true);
+        CompletableFuture<List<BatchResult>> batch = CompletableFuture.supplyAsync(() -> cacheService.getBatch(List.of(id)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        cacheService.remove(id);
+        removed.countDown();
+
+        // Then
+        assertEquals("stale-data", batch.get(5, TimeUnit.SECONDS).get(0).getEntity().getData());
+        assertNull(entityCache.get(id));
+        when(repository.findById(id)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class, () -> cacheService.get(id));
+    }
+
+    @Test
+    void testConcurrentGetWaitsForTheBatchLoadOfTheSameId() throws Exception {
+        // Given a batch get loading the entity
+        String id = "shared-id";
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findAllById(List.of(id))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new CachedEntity(id, "data", LocalDateTime.now()));
+        });
+        CompletableFuture<List<BatchResult>> batch = CompletableFuture.supplyAsync(() -> cacheService.getBatch(List.of(id)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<CachedEntity> get = CompletableFuture.supplyAsync(() -> cacheService.get(id));
+        release.countDown();
+
+        // Then
+        assertEquals("data", get.get(5, TimeUnit.SECONDS).getData());
+        assertEquals(BatchStatus.FOUND, batch.get(5, TimeUnit.SECONDS).get(0).getStatus());
+        verify(repository, never()).findById(id);
+    }
+
+    @Test
+    void testGetBlankIdIsRejected() {
+        assertThrows(ValidationException.class, () -> cacheService.get(" "));
+    }
+
+    @Test
+    void testAddWithNonPositiveTtlIsRejected() {
+        CachedEntity entity = new CachedEntity("test-id", "test-data", null);
+        entity.setTtlSeconds(0L);
+
+        assertThrows(ValidationException.class, () -> cacheService.add(entity));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testAddCompressesLargeDataAndKeepsItCompressedInCache() {
+        String data = "{\"value\": \"repeated\"}, ".repeat(100);
+        CachedEntity entity = new CachedEntity("large-id", data, null);
+
+        cacheService.add(entity);
+
+        CachedEntity cached = entityCache.get("large-id", CachedEntity.class);
+        assertTrue(cached.isCompressed());
+        assertTrue(cached.getDeflatedData().length < data.length() / 10);
+        verify(repository).save(cached);
+        assertEquals(data, cacheService.get("large-id").getData());
+    }
+
+    @Test
+    void testAddInWriteBehindModeQueuesEntity() {
+        // Given
+        WriteBehindWriter writeBehindWriter = org.mockito.Mockito.mock(WriteBehindWriter.class);
+        CachingService writeBehindService = new CachingService(repository, accessTimeRecorder, Optional.of(writeBehindWriter), cacheManager, negativeCache, offHeapStore, TransactionOperations.withoutTransaction(), new SimpleMeterRegistry(), dataCompressor, cacheWarmer);
+        CachedEntity entity = new CachedEntity("test-id", "test-data", null);
+
+        // When
+        writeBehindService.add(entity);
+
+        // Then
+        verify(writeBehindWriter).enqueue(entity);
+        verify(repository, never()).save(any(CachedEntity.class));
+        assertNotNull(entity.getCacheAccessedTime());
+    }
+
+    @Test
+    void testGetBatchLoadsOnlyMissesWithOneQuery() {
+        // Given
+        CachedEntity cached = new CachedEntity("cached-id", "cached-data", LocalDateTime.now());
+        CachedEntity stored = new CachedEntity("stored-id", "stored-data", LocalDateTime.now());
+        entityCache.put("cached-id", cached);
+        when(repository.findAllById(List.of("stored-id", "missing-id"))).thenReturn(List.of(stored));
+
+        // When
+        List<BatchResult> results = cacheService.getBatch(List.of("cached-id", "stored-id", "missing-id", "cached-id", " "));
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals(BatchStatus.FOUND, results.get(0).getStatus());
+        assertEquals(cached, results.get(0).getEntity());
+        assertEquals(BatchStatus.FOUND, results.get(1).getStatus());
+        assertEquals(BatchStatus.NOT_FOUND, results.get(2).getStatus());
+        assertEquals(BatchStatus.INVALID, results.get(3).getStatus());
+        assertEquals(stored, entityCache.get("stored-id", CachedEntity.class));
+        verify(repository).findAllById(List.of("stored-id", "missing-id"));
+        verify(accessTimeRecorder).record("stored-id");
+    }
+
+    @Test
+    void testAddBatchSavesValidEntitiesInOneBatch() {
+        // Given
+        CachedEntity first = new CachedEntity("id1", "data1", null);
+        CachedEntity second = new CachedEntity("id2", "data2", null);
+        CachedEntity invalid = new CachedEntity("", "data3", null);
+
+        // When
+        List<BatchResult> results = cacheService.addBatch(List.of(first, invalid, second));
+
+        // Then
+        assertEquals(List.of(BatchStatus.STORED, BatchStatus.INVALID, BatchStatus.STORED),
+                results.stream().map(BatchResult::getStatus).toList());
+        verify(repository).saveAll(List.of(first, second));
+        assertEquals(first, entityCache.get("id1", CachedEntity.class));
+        assertNotNull(first.getCacheAccessedTime());
+    }
+
+    @Test
+    void testAddBatchReportsEachEntityWithoutAnIdInPlace() {
+        CachedEntity valid = new CachedEntity("id1", "data1", null);
+        List<CachedEntity> entities = new ArrayList<>();
+        entities.add(new CachedEntity(null, "data2", null));
+        entities.add(valid);
+        entities.add(null);
+        entities.add(new CachedEntity(" ", "data3", null));
+
+        List<BatchResult> results = cacheService.addBatch(entities);
+
+        assertEquals(List.of(BatchStatus.INVALID, BatchStatus.STORED, BatchStatus.INVALID, BatchStatus.INVALID),
+                results.stream().map(BatchResult::getStatus).toList());
+        assertEquals(" ", results.get(3).getId());
+    }
+
+    @Test
+    void testAddBatchCachesEntitiesOnlyOnceTheTransactionCommits() {
+        CachedEntity entity = new CachedEntity("id1", "data1", null);
+        cacheService = new CachingService(repository, accessTimeRecorder, Optional.empty(), cacheManager, negativeCache,
+                offHeapStore, transaction(false), new SimpleMeterRegistry(), dataCompressor, cacheWarmer);
+
+        cacheService.addBatch(List.of(entity));
+        assertNull(entityCache.get("id1"));
+
+        cacheService = new CachingService(repository, accessTimeRecorder, Optional.empty(), cacheManager, negativeCache,
+                offHeapStore, transaction(true), new SimpleMeterRegistry(), dataCompressor, cacheWarmer);
+        cacheService.addBatch(List.of(entity));
+        assertEquals(entity, entityCache.get("id1", CachedEntity.class));
+    }
+
+    // Runs the callback with transaction synchronization, committing or rolling back afterwards
+    private static TransactionOperations transaction(boolean commit) {
+        return new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    T result = action.doInTransaction(new SimpleTransactionStatus());
+                    if (commit) {
+                        TransactionSynchronizationUtils.triggerAfterCommit();
+                    }
+                    return result;
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }
+        };
+    }
+
+    @Test
+    void testRemoveBatchReportsPerIdStatus() {
+        // Given
+        entityCache.put("id1", new CachedEntity("id1", "data1", LocalDateTime.now()));
+        when(repository.deleteAllById(List.of("id1", "id2"))).thenReturn(new int[] {1, 0});
+
+        // When
+        List<BatchResult> results = cacheService.removeBatch(List.of("id1", "id2"));
+
+        // Then
+        assertEquals(BatchStatus.DELETED, results.get(0).getStatus());
+        assertEquals(BatchStatus.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(null, entityCache.get("id1"));
+    }
+
+    @Test
+    void testEntityAddedWhileItsMissIsLoadedIsNotReportedMissing() {
+        // Given a load whose query misses just before an add of the same ID commits
+        String id = "racing-id";
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            cacheService.add(new CachedEntity(id, "data", null));
+            return Optional.empty();
+        }).thenReturn(Optional.of(new CachedEntity(id, "data", LocalDateTime.now())));
+        when(repository.findAllById(List.of("batch-id"))).thenAnswer(invocation -> {
+            cacheService.add(new CachedEntity("batch-id", "data", null));
+            return List.of();
+        });
+
+        // When
+        assertThrows(EntityNotFoundException.class, () -> cacheService.get(id));
+        assertEquals(BatchStatus.NOT_FOUND, cacheService.getBatch(List.of("batch-id")).get(0).getStatus());
+
+        // Then the entities leave the first tier and are still found
+        assertFalse(negativeCache.isKnownAbsent(id));
+        assertFalse(negativeCache.isKnownAbsent("batch-id"));
+        entityCache.evict(id);
+        assertEquals("data", cacheService.get(id).getData());
+    }
+
+    @Test
+    void testMissingEntityIsNegativelyCachedUntilAdded() {
+        // Given
+        String id = "missing-id";
+        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(EntityNotFoundException.class, () -> cacheService.get(id));
+        assertThrows(EntityNotFoundException.class, () -> cacheService.get(id));
+        List<BatchResult> results = cacheService.getBatch(List.of(id));
+
+        // Then
+        verify(repository, times(1)).findById(id);
+        verify(repository, never()).findAllById(List.of(id));
+        assertEquals(BatchStatus.NOT_FOUND, results.get(0).getStatus());
+
+        // When added, the entity is no longer shadowed
+        cacheService.add(new CachedEntity(id, "data", null));
+        when(repository.findById(id)).thenReturn(Optional.of(new CachedEntity(id, "data", LocalDateTime.now())));
+        assertEquals("data", cacheService.get(id).getData());
+    }
 }
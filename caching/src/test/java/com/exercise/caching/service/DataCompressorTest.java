@@ -0,0 +1,92 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.model.DataDeflater;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DataCompressorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        compressor = new DataCompressor(meterRegistry, true, 1024, 1);
+    }
+
+    @Test
+    void whenDataIsAboveThreshold_thenItIsCompressedAndRatioIsRecorded() {
+        String data = "{\"name\": \"value\"}".repeat(100);
+        CachedEntity entity = new CachedEntity("id1", data, null);
+
+        assertTrue(compressor.compress(entity));
+
+        assertTrue(entity.isCompressed());
+        assertEquals(data, entity.getData());
+        assertEquals(1, meterRegistry.get("cache.compression.ratio").summary().count());
+        assertTrue(meterRegistry.get("cache.compression.ratio").summary().max() > 10);
+        assertEquals(data.length(), meterRegistry.get("cache.compression.bytes").tag("state", "original").counter().count());
+        assertEquals(1, meterRegistry.get("cache.compression.time").tag("operation", "deflate").timer().count());
+
+        CachedEntity inflated = compressor.inflated(entity);
+        assertFalse(inflated.isCompressed());
+        assertEquals(data, inflated.getData());
+        assertTrue(entity.isCompressed());
+        assertEquals(1, meterRegistry.get("cache.compression.time").tag("operation", "inflate").timer().count());
+    }
+
+    @Test
+    void whenDataIsHeldAsText_thenInflatedReturnsTheEntityItself() {
+        CachedEntity entity = new CachedEntity("id1", "data1", null);
+
+        assertSame(entity, compressor.inflated(entity));
+        assertEquals(0, meterRegistry.get("cache.compression.time").tag("operation", "inflate").timer().count());
+    }
+
+    @Test
+    void whenDataIsSmallOrDoesNotShrink_thenItIsKeptAsText() {
+        CachedEntity small = new CachedEntity("id1", "x".repeat(1023), null);
+        // Shorter than the zlib header and checksum
+        CachedEntity incompressible = new CachedEntity("id2", "xyz", null);
+
+        assertFalse(compressor.compress(small));
+        assertFalse(new DataCompressor(meterRegistry, true, 1, 1).compress(incompressible));
+        assertFalse(new DataCompressor(meterRegistry, false, 1024, 1).compress(new CachedEntity("id3", "x".repeat(4096), null)));
+
+        assertFalse(small.isCompressed());
+        assertFalse(incompressible.isCompressed());
+    }
+
+    @Test
+    void whenSerializedAsJson_thenDataIsInflatedAndCompressedBytesAreHidden() throws Exception {
+        String data = "abc".repeat(1000);
+        CachedEntity entity = new CachedEntity("id1", data, null);
+        compressor.compress(entity);
+
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(entity);
+
+        assertTrue(json.contains("\"data\":\"" + data + "\""));
+        assertFalse(json.contains("deflated"));
+        assertFalse(json.contains("compressed"));
+    }
+
+    @Test
+    void whenDeflatedDataIsCorrupted_thenInflatingFails() {
+        byte[] deflated = DataDeflater.deflate("abc".repeat(1000), 1);
+        deflated[deflated.length - 1] ^= 1;
+
+        assertThrows(IllegalArgumentException.class, () -> DataDeflater.inflate(deflated));
+    }
+}
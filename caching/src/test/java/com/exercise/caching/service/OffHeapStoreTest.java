@@ -0,0 +1,169 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exercise.caching.model.CachedEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OffHeapStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenEntityIsTaken_thenItIsReturnedOnceAndCountedAsHit() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 64 * 1024, "");
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+
+        store.put(entity);
+
+        assertEquals(entity, store.take("id1"));
+        assertNull(store.take("id1"));
+        assertEquals(0, store.getUsedBytes());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", OffHeapStore.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", OffHeapStore.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void whenEntityIsStoredAgain_thenLatestValueReplacesIt() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 64 * 1024, "");
+
+        store.put(new CachedEntity("id1", "old", LocalDateTime.now()));
+        store.put(new CachedEntity("id1", "new", LocalDateTime.now()));
+
+        assertEquals(1, store.getEntryCount());
+        assertEquals("new", store.take("id1").getData());
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    @Test
+    void whenEntityHasAFixedExpiry_thenItIsKeptWhenTakenOrEvicted() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 256, "");
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+        entity.setTtlSeconds(60L);
+        long storedAt = System.currentTimeMillis();
+        entity.startTtl(storedAt);
+
+        store.put(entity);
+        assertEquals(storedAt + 60_000L, store.take("id1").getExpiresAt());
+
+        store.put(entity);
+        List<CachedEntity> evicted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            evicted.addAll(store.put(new CachedEntity("id" + (i + 2), "data", LocalDateTime.now())));
+        }
+        assertEquals("id1", evicted.get(0).getId());
+        assertEquals(storedAt + 60_000L, evicted.get(0).getExpiresAt());
+    }
+
+    @Test
+    void whenEntityIsPastItsDeadline_thenItIsDroppedInsteadOfTaken() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 64 * 1024, "");
+        long now = System.currentTimeMillis();
+        CachedEntity expired = new CachedEntity("expired", "data", LocalDateTime.now());
+        expired.setTtlSeconds(60L);
+        expired.startTtl(now - 120_000L);
+        CachedEntity stale = new CachedEntity("stale", "data", LocalDateTime.now());
+        stale.setCacheExpiresAt(now - 1);
+        CachedEntity live = new CachedEntity("live", "data", LocalDateTime.now());
+        live.setCacheExpiresAt(now + 60_000L);
+
+        store.put(expired);
+        store.put(stale);
+        store.put(live);
+
+        assertNull(store.take("expired"));
+        assertNull(store.take("stale"));
+        assertEquals(now + 60_000L, store.take("live").getCacheExpiresAt());
+        assertEquals(0, store.getEntryCount());
+        assertEquals(0, store.getUsedBytes());
+        assertEquals(1, store.getHitCount());
+        assertEquals(2, store.getMissCount());
+    }
+
+    @Test
+    void whenLogWrapsOverExpiredEntries_thenTheyAreNotWrittenBack() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 256, "");
+        CachedEntity stale = new CachedEntity("stale", "data", LocalDateTime.now());
+        stale.setCacheExpiresAt(System.currentTimeMillis() - 1);
+        store.put(stale);
+
+        List<CachedEntity> evicted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            evicted.addAll(store.put(new CachedEntity("id" + i, "data", LocalDateTime.now())));
+        }
+
+        assertFalse(store.contains("stale"));
+        assertFalse(evicted.stream().anyMatch(entity -> "stale".equals(entity.getId())));
+    }
+
+    @Test
+    void whenLogWraps_thenOldestLiveEntriesAreReturnedForWriteBack() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 512, "");
+        store.put(new CachedEntity("removed", "x", LocalDateTime.now()));
+        store.invalidate("removed");
+
+        List<CachedEntity> evicted = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            evicted.addAll(store.put(new CachedEntity("id" + i, "data" + i, LocalDateTime.now())));
+        }
+
+        assertEquals("id0", evicted.get(0).getId());
+        assertFalse(evicted.stream().anyMatch(entity -> "removed".equals(entity.getId())));
+        assertEquals(store.getEvictionCount(), evicted.size());
+        assertTrue(store.contains("id49"));
+        assertFalse(store.contains("id0"));
+        assertEquals(50, store.getEntryCount() + store.getEvictionCount());
+        assertTrue(store.getUsedBytes() <= store.getCapacityBytes());
+    }
+
+    @Test
+    void whenBackedByFile_thenEntitiesRoundTripThroughMapping(@TempDir Path directory) {
+        Path file = directory.resolve("l2.cache");
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 8192, file.toString());
+
+        store.put(new CachedEntity("id1", "data1", LocalDateTime.now()));
+
+        assertTrue(Files.exists(file));
+        assertEquals("data1", store.take("id1").getData());
+    }
+
+    @Test
+    void whenDisabled_thenOperationsAreNoOps() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, false, 0, "");
+
+        assertTrue(store.put(new CachedEntity("id1", "data1", LocalDateTime.now())).isEmpty());
+
+        assertFalse(store.isEnabled());
+        assertNull(store.take("id1"));
+    }
+
+    @Test
+    void whenEntityDoesNotFit_thenItIsReturnedForWriteBack() {
+        OffHeapStore store = new OffHeapStore(meterRegistry, true, 256, "");
+        CachedEntity entity = new CachedEntity("id1", "x".repeat(1000), LocalDateTime.now());
+
+        assertEquals(List.of(entity), store.put(entity));
+        assertFalse(store.contains("id1"));
+        assertEquals(1.0, meterRegistry.get("cache.offheap.rejected").functionCounter().count());
+    }
+}
@@ -0,0 +1,73 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.exception.CachingException;
+import com.exercise.caching.exception.EntityNotFoundException;
+import com.exercise.caching.exception.ValidationException;
+import com.exercise.caching.model.BatchResult;
+import com.exercise.caching.model.BatchStatus;
+import com.exercise.caching.model.CachedEntity;
+
+class ReactiveCachingServiceTest {
+
+    private CachingService cachingService;
+    private ReactiveCachingService reactiveCachingService;
+
+    @BeforeEach
+    void setUp() {
+        cachingService = mock(CachingService.class);
+        reactiveCachingService = new ReactiveCachingService(cachingService, 4);
+    }
+
+    @Test
+    void whenEntityIsCached_thenItIsReturnedWithoutLoading() {
+        CachedEntity entity = new CachedEntity("id1", "data1", LocalDateTime.now());
+        when(cachingService.getIfCached("id1")).thenReturn(entity);
+
+        assertEquals(entity, reactiveCachingService.get("id1").block());
+        verify(cachingService, never()).get(anyString());
+    }
+
+    @Test
+    void whenEntityIsNotCached_thenItIsLoadedOffTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        when(cachingService.get("id1")).thenAnswer(invocation -> {
+            assertNotSame(caller, Thread.currentThread());
+            return new CachedEntity("id1", "data1", LocalDateTime.now());
+        });
+
+        assertEquals("data1", reactiveCachingService.get("id1").block().getData());
+    }
+
+    @Test
+    void whenStreamingIds_thenEachDistinctIdGetsOneResult() {
+        when(cachingService.get("found")).thenReturn(new CachedEntity("found", "data", LocalDateTime.now()));
+        when(cachingService.get("missing")).thenThrow(new EntityNotFoundException("Entity not found: missing"));
+        when(cachingService.get(" ")).thenThrow(new ValidationException("Invalid input"));
+        when(cachingService.get("broken")).thenThrow(new CachingException("Failed to retrieve entity", null));
+
+        List<BatchResult> results = reactiveCachingService.getEach(List.of("found", "missing", " ", "broken", "found"))
+                .collectList()
+                .block();
+
+        Map<String, BatchStatus> statuses = results.stream()
+                .collect(Collectors.toMap(BatchResult::getId, BatchResult::getStatus));
+        assertEquals(Map.of("found", BatchStatus.FOUND, "missing", BatchStatus.NOT_FOUND,
+                " ", BatchStatus.INVALID, "broken", BatchStatus.ERROR), statuses);
+    }
+}
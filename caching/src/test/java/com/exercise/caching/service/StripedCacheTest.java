@@ -0,0 +1,203 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.model.CachedEntity;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+class StripedCacheTest {
+
+    private AtomicLong ticker;
+    private ConcurrentLinkedQueue<RemovalCause> removals;
+
+    @BeforeEach
+    void setUp() {
+        ticker = new AtomicLong();
+        removals = new ConcurrentLinkedQueue<>();
+    }
+
+    private StripedCache<String, CachedEntity> cache(int maximumSize) {
+        return new StripedCache<>("cacheEntity", maximumSize, new CachedEntityExpiry(Duration.ofMinutes(10)),
+                (key, value, cause) -> removals.add(cause), Runnable::run, ticker::get);
+    }
+
+    private static CachedEntity entity(String id, Long ttlSeconds) {
+        CachedEntity entity = new CachedEntity(id, "data-" + id, null);
+        entity.setTtlSeconds(ttlSeconds);
+        return entity;
+    }
+
+    @Test
+    void whenEntityIsPutAndReplaced_thenLatestValueIsReturned() {
+        StripedCache<String, CachedEntity> cache = cache(100);
+        CachedEntity second = entity("id1", null);
+
+        cache.put("id1", entity("id1", null));
+        cache.put("id1", second);
+
+        assertSame(second, cache.get("id1", CachedEntity.class));
+        assertNull(cache.get("missing"));
+        assertEquals(1, cache.estimatedSize());
+        assertEquals(List.of(RemovalCause.REPLACED), List.copyOf(removals));
+    }
+
+    @Test
+    void whenStripeIsFull_thenEntriesNotReadSinceTheLastSweepAreEvictedFirst() {
+        StripedCache<String, CachedEntity> cache = cache(16);
+        for (int i = 0; i < 16; i++) {
+            cache.put("id" + i, entity("id" + i, null));
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.get("id" + i);
+        }
+
+        for (int i = 16; i < 24; i++) {
+            cache.put("id" + i, entity("id" + i, null));
+        }
+
+        assertEquals(16, cache.estimatedSize());
+        assertEquals(8, cache.getEvictionCount());
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(cache.get("id" + i), "id" + i);
+        }
+        for (int i = 8; i < 16; i++) {
+            assertNull(cache.get("id" + i), "id" + i);
+        }
+        assertTrue(removals.stream().allMatch(cause -> cause == RemovalCause.SIZE));
+    }
+
+    @Test
+    void whenEntityHasTtl_thenItExpiresIndependentlyOfTheDefault() {
+        StripedCache<String, CachedEntity> cache = cache(100);
+        cache.put("short", entity("short", 5L));
+        cache.put("default", entity("default", null));
+
+        advance(Duration.ofSeconds(6));
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("default"));
+
+        // A write reclaims the expired entry in its place
+        cache.put("short", entity("short", 5L));
+        assertNotNull(cache.get("short"));
+        assertEquals(List.of(RemovalCause.EXPIRED), List.copyOf(removals));
+
+        advance(Duration.ofMinutes(10));
+        assertNull(cache.get("default"));
+    }
+
+    @Test
+    void whenEntityIsEvictedOrCleared_thenItIsRemovedExplicitly() {
+        StripedCache<String, CachedEntity> cache = cache(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put("id" + i, entity("id" + i, null));
+        }
+
+        assertTrue(cache.evictIfPresent("id3"));
+        assertFalse(cache.evictIfPresent("id3"));
+        assertNull(cache.get("id3"));
+        assertNotNull(cache.get("id4"));
+
+        cache.clear();
+        assertEquals(0, cache.estimatedSize());
+        assertNull(cache.get("id4"));
+        assertEquals(10, removals.stream().filter(cause -> cause == RemovalCause.EXPLICIT).count());
+    }
+
+    @Test
+    void whenPutIfAbsent_thenExistingEntityIsKept() {
+        StripedCache<String, CachedEntity> cache = cache(100);
+        CachedEntity first = entity("id1", null);
+
+        assertNull(cache.putIfAbsent("id1", first));
+        assertSame(first, cache.putIfAbsent("id1", entity("id1", null)).get());
+        assertSame(first, cache.get("id1", CachedEntity.class));
+    }
+
+    @Test
+    void whenManyThreadsMissTheSameKey_thenTheLoaderRunsOnce() throws Exception {
+        StripedCache<String, CachedEntity> cache = cache(100);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CachedEntity>> results = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get("hot", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(100);
+                    return entity("hot", null);
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<CachedEntity> result : results) {
+            assertEquals("hot", result.get(10, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void whenReadAndWrittenConcurrently_thenSizeIsBoundedAndReadsSeeTheirOwnKey() throws Exception {
+        StripedCache<String, CachedEntity> cache = cache(1000);
+        CachedEntity[] entities = new CachedEntity[5000];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entity("id" + i, null);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    CachedEntity entity = entities[random.nextInt(entities.length)];
+                    int operation = random.nextInt(10);
+                    if (operation == 0) {
+                        cache.put(entity.getId(), entity);
+                    } else if (operation == 1) {
+                        cache.evict(entity.getId());
+                    } else {
+                        CachedEntity cached = cache.get(entity.getId(), CachedEntity.class);
+                        assertTrue(cached == null || cached == entity);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(cache.estimatedSize() <= 1000);
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(duration.toNanos());
+    }
+}
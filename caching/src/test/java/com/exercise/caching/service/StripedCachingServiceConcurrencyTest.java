@@ -0,0 +1,10 @@
+package com.exercise.caching.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the CachingService concurrency tests against the striped cache engine
+ */
+@SpringBootTest(properties = "cache.engine=striped")
+class StripedCachingServiceConcurrencyTest extends CachingServiceConcurrencyTest {
+}
@@ -0,0 +1,19 @@
+package com.exercise.caching.service;
+
+import java.time.Duration;
+
+import org.springframework.cache.Cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Runs the CachingService tests against the striped cache engine
+ */
+class StripedCachingServiceTest extends CachingServiceTest {
+
+    @Override
+    protected Cache createEntityCache() {
+        return new StripedCache<>("cacheEntity", 100, new CachedEntityExpiry(Duration.ofMinutes(10)), null,
+                Runnable::run, Ticker.systemTicker());
+    }
+}
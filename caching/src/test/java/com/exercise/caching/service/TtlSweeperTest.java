@@ -0,0 +1,91 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TtlSweeperTest {
+
+    private CachingRepository repository;
+    private CachingService cachingService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CachingRepository.class);
+        cachingService = mock(CachingService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private TtlSweeper sweeper(int chunkSize) {
+        return new TtlSweeper(repository, cachingService, meterRegistry, true, 24, 60000, chunkSize, 0);
+    }
+
+    private static List<String> ids(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).toList();
+    }
+
+    @Test
+    void whenChunksAreFull_thenDeletingContinuesUntilAPartialChunk() {
+        when(repository.deleteExpired(anyLong(), eq(10))).thenReturn(ids("a", 10), ids("b", 10), ids("c", 3));
+        LocalDateTime now = LocalDateTime.of(2024, 1, 2, 12, 0);
+        when(repository.deleteNotAccessedSince(now.minusHours(24), 10)).thenReturn(ids("d", 4));
+
+        long deleted = sweeper(10).sweep(1_000L, now);
+
+        assertEquals(27, deleted);
+        verify(repository, times(3)).deleteExpired(1_000L, 10);
+        verify(repository, times(1)).deleteNotAccessedSince(now.minusHours(24), 10);
+    }
+
+    @Test
+    void whenRowsAreSwept_thenTheirEntitiesAreEvictedFromTheCache() {
+        when(repository.deleteExpired(anyLong(), eq(10))).thenReturn(List.of("expired1", "expired2"));
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.deleteNotAccessedSince(now.minusHours(24), 10)).thenReturn(List.of("stale1"));
+
+        sweeper(10).sweep(1_000L, now);
+
+        verify(cachingService).evict(List.of("expired1", "expired2"));
+        verify(cachingService).evict(List.of("stale1"));
+    }
+
+    @Test
+    void whenSweepRuns_thenRowsAndDurationAreRecorded() {
+        when(repository.deleteExpired(anyLong(), eq(10))).thenReturn(ids("a", 2));
+
+        sweeper(10).sweep(1_000L, LocalDateTime.now());
+        sweeper(10).sweep(2_000L, LocalDateTime.now());
+
+        assertEquals(2, meterRegistry.get("cache.sweeper.rows").summary().count());
+        assertEquals(4.0, meterRegistry.get("cache.sweeper.rows").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("cache.sweeper.duration").timer().count());
+    }
+
+    @Test
+    void whenStopped_thenNoFurtherChunksAreDeleted() {
+        TtlSweeper sweeper = sweeper(10);
+        when(repository.deleteExpired(anyLong(), eq(10))).thenAnswer(invocation -> {
+            sweeper.shutdown();
+            return ids("a", 10);
+        });
+
+        assertEquals(10, sweeper.sweep(1_000L, LocalDateTime.now()));
+        verify(repository, times(1)).deleteExpired(anyLong(), eq(10));
+    }
+}
@@ -0,0 +1,184 @@
+package com.exercise.caching.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.exercise.caching.exception.CachingException;
+import com.exercise.caching.exception.DBException;
+import com.exercise.caching.model.CachedEntity;
+import com.exercise.caching.repository.CachingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WriteBehindWriterTest {
+
+    private CachingRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CachingRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new WriteBehindWriter(repository, meterRegistry, 3, 5, 60_000, 10, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSameIdWrittenTwice_thenOnlyLatestValueIsPersisted() {
+        CachedEntity latest = entity("id1", "second");
+        writer.enqueue(entity("id1", "first"));
+        writer.enqueue(latest);
+
+        assertEquals(1, writer.getQueueDepth());
+        writer.flush();
+
+        ArgumentCaptor<List<CachedEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(batch.capture());
+        assertEquals(List.of(latest), batch.getValue());
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("cache.write.behind.coalesced").counter().count());
+    }
+
+    @Test
+    void whenQueueIsFull_thenEnqueueIsRejected() {
+        writer.enqueue(entity("id1", "data"));
+        writer.enqueue(entity("id2", "data"));
+        writer.enqueue(entity("id3", "data"));
+
+        assertThrows(CachingException.class, () -> writer.enqueue(entity("id4", "data")));
+        assertFalse(writer.offer(entity("id4", "data")));
+        assertEquals(3.0, meterRegistry.get("cache.write.behind.queue.depth").gauge().value());
+    }
+
+    @Test
+    void whenBatchSizeReached_thenFlushIsTriggeredInBackground() {
+        writer.shutdown();
+        writer = new WriteBehindWriter(repository, meterRegistry, 3, 2, 60_000, 10, 3);
+        writer.start();
+
+        writer.enqueue(entity("id1", "data"));
+        writer.enqueue(entity("id2", "data"));
+
+        verify(repository, timeout(5000)).saveAll(anyList());
+    }
+
+    @Test
+    void whenFlushFails_thenWritesStayPendingAndAreRetried() {
+        doThrow(new DBException("Failed to save entities", null)).doNothing().when(repository).saveAll(anyList());
+        CachedEntity entity = entity("id1", "data");
+        writer.enqueue(entity);
+
+        writer.flush();
+        assertSame(entity, writer.getPending("id1"));
+
+        writer.flush();
+        assertNull(writer.getPending("id1"));
+        verify(repository, times(2)).saveAll(List.of(entity));
+        assertEquals(1.0, meterRegistry.get("cache.write.behind.failures").counter().count());
+        assertEquals(1, meterRegistry.get("cache.write.behind.lag").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenOneRowAlwaysFails_thenTheOthersArePersistedAndItIsDroppedAfterMaxAttempts() {
+        CachedEntity bad = entity("id2", "too long");
+        doAnswer(invocation -> {
+            if (((List<CachedEntity>) invocation.getArgument(0)).contains(bad)) {
+                throw new DBException("Failed to save entities", new DataIntegrityViolationException("Value too long"));
+            }
+            return null;
+        }).when(repository).saveAll(anyList());
+        writer.enqueue(entity("id1", "data"));
+        writer.enqueue(bad);
+        writer.enqueue(entity("id3", "data"));
+
+        writer.flush();
+        assertNull(writer.getPending("id1"));
+        assertNull(writer.getPending("id3"));
+        assertSame(bad, writer.getPending("id2"));
+
+        writer.flush();
+        assertSame(bad, writer.getPending("id2"));
+        writer.flush();
+        assertNull(writer.getPending("id2"));
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("cache.write.behind.dead.letters").counter().count());
+
+        // Every permit is back
+        writer.enqueue(entity("id4", "data"));
+        writer.enqueue(entity("id5", "data"));
+        writer.enqueue(entity("id6", "data"));
+    }
+
+    @Test
+    void whenDatabaseIsUnavailable_thenNoRowIsDropped() {
+        doThrow(new DBException("Failed to save entities", new DataAccessResourceFailureException("Connection refused")))
+                .when(repository).saveAll(anyList());
+        writer.enqueue(entity("id1", "data"));
+        writer.enqueue(entity("id2", "data"));
+
+        for (int i = 0; i < 5; i++) {
+            writer.flush();
+        }
+
+        assertEquals(2, writer.getQueueDepth());
+        verify(repository, times(5)).saveAll(anyList());
+        assertEquals(0.0, meterRegistry.get("cache.write.behind.dead.letters").counter().count());
+    }
+
+    @Test
+    void whenCancelled_thenPendingWriteIsNotPersisted() {
+        writer.enqueue(entity("id1", "data"));
+
+        assertTrue(writer.cancel("id1"));
+        assertFalse(writer.cancel("id1"));
+        writer.flush();
+
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void whenShutDown_thenPendingWritesAreFlushed() {
+        doNothing().when(repository).saveAll(anyList());
+        writer.start();
+        CachedEntity entity = entity("id1", "data");
+        writer.enqueue(entity);
+
+        writer.shutdown();
+
+        verify(repository).saveAll(List.of(entity));
+    }
+
+    private static CachedEntity entity(String id, String data) {
+        return new CachedEntity(id, data, LocalDateTime.now());
+    }
+}